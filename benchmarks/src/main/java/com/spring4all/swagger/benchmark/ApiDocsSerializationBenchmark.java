@@ -0,0 +1,80 @@
+package com.spring4all.swagger.benchmark;
+
+import com.spring4all.swagger.SwaggerApiDocs;
+import com.spring4all.swagger.SwaggerApiDocsCache;
+import com.spring4all.swagger.SwaggerApiDocsWriter;
+import com.spring4all.swagger.SwaggerDocumentationScanner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个分组 /v2/api-docs 的序列化开销、流式输出的开销，以及命中缓存时的开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ApiDocsSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int endpoints;
+
+    private SyntheticApplication application;
+    private SwaggerApiDocsCache apiDocsCache;
+    private SwaggerApiDocsWriter apiDocsWriter;
+    private Documentation documentation;
+    private MockHttpServletRequest request;
+    private String groupName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = new SyntheticApplication(endpoints, 1);
+        groupName = SyntheticApplication.groupName(0);
+        application.getBean(SwaggerDocumentationScanner.class).ensureAllScanned();
+        apiDocsCache = application.getBean(SwaggerApiDocsCache.class);
+        apiDocsWriter = application.getBean(SwaggerApiDocsWriter.class);
+        documentation = application.getBean(DocumentationCache.class).documentationByGroup(groupName);
+        request = new MockHttpServletRequest("GET", "/v2/api-docs");
+        request.setParameter("group", groupName);
+    }
+
+    @Benchmark
+    public SwaggerApiDocs serialize() {
+        return apiDocsCache.export(groupName, "/");
+    }
+
+    @Benchmark
+    public void stream(Blackhole blackhole) throws IOException {
+        apiDocsWriter.write(documentation, new SwaggerApiDocsWriter.Target(null, "/"),
+                new OutputStream() {
+                    @Override
+                    public void write(int b) {
+                        blackhole.consume(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                        blackhole.consume(b);
+                    }
+                });
+    }
+
+    @Benchmark
+    public SwaggerApiDocs cached() {
+        return apiDocsCache.get(groupName, request);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+}
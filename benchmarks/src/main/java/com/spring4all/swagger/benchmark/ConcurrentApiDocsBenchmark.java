@@ -0,0 +1,86 @@
+package com.spring4all.swagger.benchmark;
+
+import com.spring4all.swagger.SwaggerApiDocs;
+import com.spring4all.swagger.SwaggerApiDocsCache;
+import com.spring4all.swagger.SwaggerDocumentationScanner;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大量并发请求同时访问尚未扫描的分组：每轮开始前移除分组的文档与缓存，所有线程同时请求同一分组。
+ * 每轮结束时检查所有线程得到的是同一份api-docs，即分组只被扫描、序列化了一次
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Threads(32)
+@Fork(1)
+public class ConcurrentApiDocsBenchmark {
+
+    @Param({"1000"})
+    private int endpoints;
+
+    private SyntheticApplication application;
+    private SwaggerDocumentationScanner scanner;
+    private SwaggerApiDocsCache apiDocsCache;
+    private String groupName;
+
+    private final Set<SwaggerApiDocs> results = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = new SyntheticApplication(endpoints, 1);
+        groupName = SyntheticApplication.groupName(0);
+        scanner = application.getBean(SwaggerDocumentationScanner.class);
+        apiDocsCache = application.getBean(SwaggerApiDocsCache.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void evict() {
+        scanner.evict(groupName);
+        apiDocsCache.evict(groupName);
+        results.clear();
+    }
+
+    @Benchmark
+    public SwaggerApiDocs coldRead(Request request) {
+        scanner.ensureScanned(groupName);
+        SwaggerApiDocs apiDocs = apiDocsCache.get(groupName, request.request);
+        results.add(apiDocs);
+        return apiDocs;
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        if (results.size() != 1) {
+            throw new IllegalStateException("Expected every reader to share one api-docs, got " + results.size());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    /**
+     * 每个线程独立的请求对象
+     */
+    @State(Scope.Thread)
+    public static class Request {
+
+        private MockHttpServletRequest request;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            request = new MockHttpServletRequest("GET", "/v2/api-docs");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.spring4all.swagger.benchmark;
+
+import com.spring4all.swagger.SwaggerDocketFactory;
+import com.spring4all.swagger.SwaggerDocumentationMetrics;
+import com.spring4all.swagger.SwaggerProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SwaggerDocketFactory 创建所有分组 Docket 的开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DocketBuildBenchmark {
+
+    @Param({"1", "10", "30"})
+    private int groups;
+
+    private SwaggerProperties swaggerProperties;
+
+    @Setup
+    public void setUp() {
+        swaggerProperties = new SwaggerProperties();
+        for (int group = 0; group < groups; group++) {
+            SwaggerProperties.DocketInfo docketInfo = new SwaggerProperties.DocketInfo();
+            docketInfo.getBasePath().add("/g" + group + "/**");
+            docketInfo.getExcludePath().add("/g" + group + "/internal/**");
+            swaggerProperties.getDocket().put(SyntheticApplication.groupName(group), docketInfo);
+        }
+    }
+
+    @Benchmark
+    public List<Docket> createDockets() {
+        SwaggerDocketFactory docketFactory = new SwaggerDocketFactory(swaggerProperties,
+                new SwaggerDocumentationMetrics(), new StandardEnvironment());
+        List<Docket> dockets = new ArrayList<>(groups);
+        for (String groupName : swaggerProperties.getDocket().keySet()) {
+            dockets.add(docketFactory.createGroupDocket(groupName));
+        }
+        return dockets;
+    }
+}
@@ -0,0 +1,44 @@
+package com.spring4all.swagger.benchmark;
+
+import com.spring4all.swagger.SwaggerDocumentationScanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 扫描合成接口生成所有分组文档的开销，包括构建请求处理器索引
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScanBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int endpoints;
+
+    @Param({"1", "10"})
+    private int groups;
+
+    private SyntheticApplication application;
+    private SwaggerDocumentationScanner scanner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = new SyntheticApplication(endpoints, groups);
+        scanner = application.getBean(SwaggerDocumentationScanner.class);
+    }
+
+    @Benchmark
+    public void scanAllGroups() {
+        scanner.stop();
+        scanner.ensureAllScanned();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+}
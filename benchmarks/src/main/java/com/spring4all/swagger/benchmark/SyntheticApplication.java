@@ -0,0 +1,69 @@
+package com.spring4all.swagger.benchmark;
+
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基准测试用的应用上下文，注册指定数量的接口并按路径划分为多个分组
+ */
+public class SyntheticApplication implements Closeable {
+
+    private final AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+
+    /**
+     * @param endpoints 接口数量
+     * @param groups    分组数量，0表示不分组
+     */
+    public SyntheticApplication(int endpoints, int groups) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("swagger.scan-mode", "lazy");
+        for (int group = 0; group < groups; group++) {
+            properties.put("swagger.docket." + groupName(group) + ".base-path[0]", "/g" + group + "/**");
+        }
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.setServletContext(new MockServletContext());
+        context.register(SyntheticConfiguration.class);
+        context.refresh();
+        registerEndpoints(endpoints, Math.max(groups, 1));
+    }
+
+    public static String groupName(int group) {
+        return "group" + group;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void registerEndpoints(int endpoints, int groups) {
+        RequestMappingHandlerMapping handlerMapping = context.getBean(RequestMappingHandlerMapping.class);
+        SyntheticController controller = new SyntheticController();
+        Method method;
+        try {
+            method = SyntheticController.class.getMethod("get", Long.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        for (int i = 0; i < endpoints; i++) {
+            RequestMappingInfo mappingInfo = RequestMappingInfo
+                    .paths("/g" + (i % groups) + "/e" + i + "/{id}")
+                    .methods(RequestMethod.GET)
+                    .build();
+            handlerMapping.registerMapping(mappingInfo, controller, method);
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,16 @@
+package com.spring4all.swagger.benchmark;
+
+import com.spring4all.swagger.EnableSwagger2Doc;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * 基准测试上下文配置，接口由 {@link SyntheticApplication} 在上下文启动后注册
+ */
+@Configuration
+@EnableWebMvc
+@EnableSwagger2Doc
+@EnableConfigurationProperties
+public class SyntheticConfiguration {
+}
@@ -0,0 +1,51 @@
+package com.spring4all.swagger.benchmark;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基准测试用的接口实现，所有合成接口共用同一个处理方法
+ */
+public class SyntheticController {
+
+    @ResponseBody
+    public SyntheticDto get(@PathVariable("id") Long id) {
+        return new SyntheticDto();
+    }
+
+    public static class SyntheticDto {
+
+        private Long id;
+        private String name;
+        private List<Item> items = Collections.emptyList();
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+    }
+
+    public static class Item {
+
+        private String sku;
+        private Integer quantity;
+
+        public String getSku() {
+            return sku;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+    }
+}
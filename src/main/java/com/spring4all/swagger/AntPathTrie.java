@@ -0,0 +1,156 @@
+package com.spring4all.swagger;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 将多个ANT规则编译为按路径分段组织的前缀树，一次遍历即可判断路径是否匹配其中任意一个规则，匹配结果与 {@link AntPathMatcher} 一致。
+ * <p>
+ * 由字面量、{@code *} 组成，并可以以 {@code /**} 结尾的规则直接由前缀树判断；
+ * 其余规则（如包含 {@code ?}、{@code {var}}、中间的 {@code **} 等）挂在前缀树中字面量前缀对应的节点上，
+ * 只有路径走到该节点时才交给 {@link AntPathMatcher} 判断。
+ */
+public class AntPathTrie {
+
+    private static final String SEPARATOR = "/";
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    private final Node root = new Node();
+
+    /**
+     * 不以 / 开头的规则，只可能匹配不以 / 开头的路径
+     */
+    private final List<String> relativePatterns = new ArrayList<>();
+
+    public AntPathTrie(List<String> patterns) {
+        for (String pattern : patterns) {
+            add(pattern);
+        }
+    }
+
+    /**
+     * 判断路径是否匹配任意一个规则
+     *
+     * @param path 路径
+     * @return 是否匹配
+     */
+    public boolean matches(String path) {
+        if (!path.startsWith(SEPARATOR)) {
+            for (String pattern : relativePatterns) {
+                if (antPathMatcher.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return matches(root, tokenize(path), 0, path);
+    }
+
+    private boolean matches(Node node, String[] tokens, int index, String path) {
+        if (node.matchAll) {
+            return true;
+        }
+        for (String pattern : node.patterns) {
+            if (antPathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+
+        if (index == tokens.length) {
+            boolean endsWithSeparator = path.endsWith(SEPARATOR);
+            if (endsWithSeparator ? node.endWithSeparator : node.endWithoutSeparator) {
+                return true;
+            }
+            // 与 AntPathMatcher 一致：规则只剩一个 * 且路径以 / 结尾时匹配
+            return endsWithSeparator && node.wildcard != null
+                    && (node.wildcard.endWithSeparator || node.wildcard.endWithoutSeparator);
+        }
+
+        Node child = node.children.get(tokens[index]);
+        if (child != null && matches(child, tokens, index + 1, path)) {
+            return true;
+        }
+        return node.wildcard != null && matches(node.wildcard, tokens, index + 1, path);
+    }
+
+    private void add(String pattern) {
+        if (!pattern.startsWith(SEPARATOR)) {
+            relativePatterns.add(pattern);
+            return;
+        }
+
+        String[] tokens = tokenize(pattern);
+        Node node = root;
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            if ("**".equals(token) && i == tokens.length - 1 && pattern.endsWith(token)) {
+                node.matchAll = true;
+                return;
+            }
+            if ("*".equals(token)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else if (isLiteral(token)) {
+                node = node.children.computeIfAbsent(token, key -> new Node());
+            } else {
+                node.patterns.add(pattern);
+                return;
+            }
+        }
+
+        if (pattern.endsWith(SEPARATOR)) {
+            node.endWithSeparator = true;
+        } else {
+            node.endWithoutSeparator = true;
+        }
+    }
+
+    private static boolean isLiteral(String token) {
+        return token.indexOf('*') == -1 && token.indexOf('?') == -1 && token.indexOf('{') == -1;
+    }
+
+    /**
+     * 与 AntPathMatcher 的默认分段方式一致：不去除空白，忽略空的分段
+     */
+    private static String[] tokenize(String path) {
+        return StringUtils.tokenizeToStringArray(path, SEPARATOR, false, true);
+    }
+
+    private static class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        /**
+         * 对应规则中的 * 分段
+         */
+        private Node wildcard;
+
+        /**
+         * 存在以 /** 结尾的规则，路径走到该节点即匹配
+         */
+        private boolean matchAll;
+
+        /**
+         * 存在在该节点结束且以 / 结尾的规则
+         */
+        private boolean endWithSeparator;
+
+        /**
+         * 存在在该节点结束且不以 / 结尾的规则
+         */
+        private boolean endWithoutSeparator;
+
+        /**
+         * 需要交给 AntPathMatcher 判断的规则
+         */
+        private final List<String> patterns = new ArrayList<>();
+    }
+}
@@ -15,7 +15,8 @@ import springfox.documentation.swagger2.configuration.Swagger2DocumentationConfi
 @ConditionalOnProperty(name = "swagger.enabled", matchIfMissing = true)
 @Import({
         Swagger2DocumentationConfiguration.class,
-        BeanValidatorPluginsConfiguration.class
+        BeanValidatorPluginsConfiguration.class,
+        SwaggerDocumentationConfiguration.class
 })
 public class Swagger2Configuration {
 }
@@ -0,0 +1,270 @@
+package com.spring4all.swagger;
+
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 序列化后的api-docs，同时保存原始内容与gzip压缩后的内容。
+ * 内容可以保存在堆内、直接内存或内存映射文件中，见 {@link SwaggerApiDocsStorage}
+ */
+public class SwaggerApiDocs {
+
+    /**
+     * gzip内容的ETag后缀：同一个ETag只能对应一种编码，否则缓存可能把gzip内容返回给不支持gzip的客户端
+     */
+    static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    /**
+     * 各输出流类型的 write(ByteBuffer) 方法，Tomcat、Jetty、Undertow 的 ServletOutputStream 都提供该方法
+     */
+    private static final Map<Class<?>, Optional<Method>> BUFFER_WRITERS = new ConcurrentHashMap<>();
+
+    /**
+     * json内容
+     */
+    private final ByteBuffer content;
+
+    /**
+     * gzip压缩后的json内容
+     */
+    private final ByteBuffer gzipContent;
+
+    /**
+     * 基于内容计算的强ETag
+     */
+    private final String etag;
+
+    /**
+     * 内容所在的文件，仅内存映射存储时存在，可用于sendfile
+     */
+    private final File contentFile;
+
+    /**
+     * gzip内容所在的文件，仅内存映射存储时存在，可用于sendfile
+     */
+    private final File gzipContentFile;
+
+    public SwaggerApiDocs(byte[] content) {
+        this(ByteBuffer.wrap(content), ByteBuffer.wrap(gzip(content)), etag(content), null, null);
+    }
+
+    SwaggerApiDocs(ByteBuffer content, ByteBuffer gzipContent, String etag, File contentFile, File gzipContentFile) {
+        this.content = content;
+        this.gzipContent = gzipContent;
+        this.etag = etag;
+        this.contentFile = contentFile;
+        this.gzipContentFile = gzipContentFile;
+    }
+
+    /**
+     * json内容，每次调用返回独立的position，不要修改其中的内容
+     *
+     * @return json内容
+     */
+    public ByteBuffer getContent() {
+        return content.duplicate();
+    }
+
+    /**
+     * gzip压缩后的json内容，每次调用返回独立的position，不要修改其中的内容
+     *
+     * @return gzip内容
+     */
+    public ByteBuffer getGzipContent() {
+        return gzipContent.duplicate();
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * 指定编码的ETag，gzip内容的ETag带有 -gzip 后缀
+     *
+     * @param gzip 是否为gzip内容
+     * @return ETag
+     */
+    public String getEtag(boolean gzip) {
+        return gzip ? etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX + "\"" : etag;
+    }
+
+    public File getContentFile() {
+        return contentFile;
+    }
+
+    public File getGzipContentFile() {
+        return gzipContentFile;
+    }
+
+    /**
+     * 将内容写入channel，直接内存与内存映射的内容不会被复制到堆内
+     *
+     * @param channel 目标channel
+     * @param gzip    是否写入gzip内容
+     * @throws IOException 写入失败
+     */
+    public void writeTo(WritableByteChannel channel, boolean gzip) throws IOException {
+        writeTo(channel, gzip ? getGzipContent() : getContent());
+    }
+
+    /**
+     * 将内容写入输出流。堆内的内容直接写出数组；直接内存与内存映射的内容在输出流提供 write(ByteBuffer) 时
+     * （如Tomcat、Jetty、Undertow的响应输出流）交给容器写出，不经过堆内的数组，
+     * 否则通过 {@link Channels#newChannel(OutputStream)} 每次复制8KB到堆内后写出
+     *
+     * @param out  输出流
+     * @param gzip 是否写入gzip内容
+     * @throws IOException 写入失败
+     */
+    public void writeTo(OutputStream out, boolean gzip) throws IOException {
+        ByteBuffer buffer = gzip ? getGzipContent() : getContent();
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            return;
+        }
+        Method write = BUFFER_WRITERS.computeIfAbsent(out.getClass(), SwaggerApiDocs::bufferWriter).orElse(null);
+        while (write != null && buffer.hasRemaining()) {
+            int position = buffer.position();
+            try {
+                write.invoke(out, buffer);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            // 没有写出任何内容时不再使用该方法，剩余内容通过channel写出
+            if (buffer.position() == position) {
+                write = null;
+            }
+        }
+        writeTo(Channels.newChannel(out), buffer);
+    }
+
+    private static Optional<Method> bufferWriter(Class<?> type) {
+        try {
+            Method method = type.getMethod("write", ByteBuffer.class);
+            method.setAccessible(true);
+            return Optional.of(method);
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void writeTo(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * 占用的内存大小
+     *
+     * @return 原始内容与gzip内容的字节数之和
+     */
+    public long retainedBytes() {
+        return content.capacity() + gzipContent.capacity();
+    }
+
+    static String etag(byte[] content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+    }
+
+    static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Accept-Encoding 是否接受gzip：q=0 表示不接受，未列出gzip时按 * 判断
+     *
+     * @param acceptEncoding Accept-Encoding 请求头
+     * @return 是否接受gzip
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (StringUtils.isEmpty(acceptEncoding)) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(acceptEncoding)) {
+            String[] parts = StringUtils.delimitedListToStringArray(candidate, ";");
+            String coding = parts[0].trim();
+            if ("gzip".equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding)) {
+                return quality(parts) > 0;
+            }
+            if ("*".equals(coding)) {
+                wildcard = quality(parts) > 0;
+            }
+        }
+        return wildcard;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && (parameter.startsWith("q=") || parameter.startsWith("Q="))) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * 缓存时间大于0时允许浏览器在这段时间内直接使用缓存，否则每次都通过ETag确认是否变化
+     *
+     * @param maxAge 缓存时间（秒）
+     * @return Cache-Control 响应头
+     */
+    public static String cacheControl(long maxAge) {
+        return maxAge > 0 ? "max-age=" + maxAge : "no-cache";
+    }
+
+    /**
+     * If-None-Match 是否匹配：支持逗号分隔的多个值、弱校验前缀 W/ 以及 *
+     *
+     * @param ifNoneMatch If-None-Match 请求头
+     * @param etag        当前内容的ETag
+     * @return 是否可以返回304
+     */
+    public static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (StringUtils.isEmpty(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || etag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,353 @@
+package com.spring4all.swagger;
+
+import org.springframework.util.StringUtils;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * api-docs缓存，每个分组的文档只序列化一次，并发请求同一分组时只有一个线程序列化，其他线程等待并共享结果。
+ * 不同 host 与 basePath 的api-docs由第一次序列化的结果替换这两处内容得到，每个分组最多缓存 max-variants 个组合，
+ * 避免客户端通过 Host、X-Forwarded-* 请求头无限制地增加缓存。
+ * 当分组文档被重新扫描（DocumentationCache 中的 Documentation 发生变化）时自动重建。
+ * 被移除、替换的组合通过 {@link SwaggerApiDocsStorage#release(SwaggerApiDocs)} 释放其占用的文件。
+ * 从快照恢复且尚未扫描的分组以快照中的模板代替 Documentation，同样按请求替换 host 与 basePath，见 {@link Snapshot}。
+ */
+public class SwaggerApiDocsCache {
+
+    private final DocumentationCache documentationCache;
+    private final SwaggerApiDocsWriter apiDocsWriter;
+    private final SwaggerApiDocsStorage apiDocsStorage;
+    private final SwaggerDocumentationMetrics documentationMetrics;
+    private final int maxVariants;
+
+    private final Map<String, GroupEntry> groups = new ConcurrentHashMap<>();
+
+    /**
+     * 从快照恢复的分组，分组扫描后不再使用
+     */
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public SwaggerApiDocsCache(DocumentationCache documentationCache,
+                               SwaggerApiDocsWriter apiDocsWriter,
+                               SwaggerApiDocsStorage apiDocsStorage,
+                               SwaggerDocumentationMetrics documentationMetrics,
+                               int maxVariants) {
+        this.documentationCache = documentationCache;
+        this.apiDocsWriter = apiDocsWriter;
+        this.apiDocsStorage = apiDocsStorage;
+        this.documentationMetrics = documentationMetrics;
+        this.maxVariants = Math.max(maxVariants, 1);
+    }
+
+    /**
+     * 获取分组的api-docs，host与basePath的计算方式与 Swagger2Controller 保持一致
+     *
+     * @param groupName 分组名称
+     * @param request   当前请求
+     * @return 分组不存在时返回null
+     */
+    public SwaggerApiDocs get(String groupName, HttpServletRequest request) {
+        Object source = documentationCache.documentationByGroup(groupName);
+        SwaggerApiDocsWriter.Target target;
+        if (source != null) {
+            target = apiDocsWriter.target((Documentation) source, request);
+        } else {
+            Snapshot snapshot = snapshots.get(groupName);
+            if (snapshot == null) {
+                return null;
+            }
+            source = snapshot;
+            target = apiDocsWriter.target(snapshot.getBasePath(), snapshot.getHost(), request);
+        }
+
+        GroupEntry entry = entry(groupName, source);
+        SwaggerApiDocs apiDocs = entry.variants.get(target.key());
+        if (apiDocs == null) {
+            apiDocs = render(entry, target);
+            documentationMetrics.recordCachedBytes(groupName, entry.retainedBytes);
+        }
+        return apiDocs;
+    }
+
+    /**
+     * 生成 host 与 basePath 对应的api-docs：第一次序列化文档并作为模板，之后只替换模板中的 host 与 basePath。
+     * 模板对应的组合一直保留，其余组合超出 max-variants 时移除最早生成的
+     */
+    private SwaggerApiDocs render(GroupEntry entry, SwaggerApiDocsWriter.Target target) {
+        synchronized (entry) {
+            SwaggerApiDocs apiDocs = entry.variants.get(target.key());
+            if (apiDocs != null) {
+                return apiDocs;
+            }
+            if (entry.released) {
+                // 缓存已经被替换或移除，只为当前请求生成
+                apiDocs = apiDocsStorage.store(template(entry.source).render(target));
+                apiDocsStorage.release(apiDocs);
+                return apiDocs;
+            }
+            if (entry.template == null) {
+                SwaggerApiDocsWriter.Template template = template(entry.source);
+                apiDocs = apiDocsStorage.store(template.render(target));
+                entry.template = template.rebase(apiDocs.getContent(), target);
+                entry.put(target.key(), apiDocs);
+                return apiDocs;
+            }
+            apiDocs = apiDocsStorage.store(entry.template.render(target));
+            entry.put(target.key(), apiDocs);
+            entry.order.add(target.key());
+            while (entry.order.size() > maxVariants - 1) {
+                apiDocsStorage.release(entry.remove(entry.order.poll()));
+            }
+            return apiDocs;
+        }
+    }
+
+    /**
+     * 分组当前文档对应的缓存，文档发生变化时替换为新的缓存；并发替换时所有线程使用同一个缓存。
+     * 分组扫描后快照中的模板不再使用
+     */
+    private GroupEntry entry(String groupName, Object source) {
+        GroupEntry entry = groups.get(groupName);
+        while (entry == null || entry.source != source) {
+            GroupEntry created = new GroupEntry(source);
+            boolean replaced = entry == null
+                    ? groups.putIfAbsent(groupName, created) == null
+                    : groups.replace(groupName, entry, created);
+            if (replaced) {
+                release(entry);
+                if (source instanceof Documentation) {
+                    snapshots.remove(groupName);
+                }
+                return created;
+            }
+            entry = groups.get(groupName);
+        }
+        return entry;
+    }
+
+    /**
+     * 序列化与请求无关的api-docs，文档未指定host时不输出host，用于在构建时生成文档
+     *
+     * @param groupName 分组名称
+     * @param basePath  文档的basePath
+     * @return 分组不存在时返回null
+     */
+    public SwaggerApiDocs export(String groupName, String basePath) {
+        Documentation documentation = documentationCache.documentationByGroup(groupName);
+        if (documentation != null) {
+            return new SwaggerApiDocs(serialize(documentation, new SwaggerApiDocsWriter.Target(
+                    StringUtils.isEmpty(documentation.getHost()) ? null : documentation.getHost(), basePath)));
+        }
+        Snapshot snapshot = snapshots.get(groupName);
+        if (snapshot == null) {
+            return null;
+        }
+        return new SwaggerApiDocs(template(snapshot).render(new SwaggerApiDocsWriter.Target(
+                StringUtils.isEmpty(snapshot.getHost()) ? null : snapshot.getHost(), basePath)));
+    }
+
+    /**
+     * 将分组文档的模板写入快照文件
+     *
+     * @param groupName 分组名称
+     * @param file      快照文件
+     * @return 分组未扫描时返回null，不会写入文件
+     * @throws IOException 写入失败
+     */
+    public Snapshot exportSnapshot(String groupName, Path file) throws IOException {
+        Documentation documentation = documentationCache.documentationByGroup(groupName);
+        if (documentation == null) {
+            return null;
+        }
+        Files.write(file, apiDocsWriter.templateContent(documentation));
+        return new Snapshot(documentation.getBasePath(), documentation.getHost(), file);
+    }
+
+    /**
+     * 使用快照中的模板提供尚未扫描的分组的api-docs，模板在第一次请求时读取
+     *
+     * @param groupName 分组名称
+     * @param snapshot  快照
+     */
+    public void restore(String groupName, Snapshot snapshot) {
+        snapshots.put(groupName, snapshot);
+    }
+
+    /**
+     * 分组是否有可用的快照，分组扫描后不再使用快照
+     *
+     * @param groupName 分组名称
+     * @return 是否有可用的快照
+     */
+    public boolean hasSnapshot(String groupName) {
+        return snapshots.containsKey(groupName);
+    }
+
+    /**
+     * 不再使用分组的快照，由快照生成的缓存一并移除
+     *
+     * @param groupName 分组名称
+     */
+    public void discard(String groupName) {
+        Snapshot snapshot = snapshots.remove(groupName);
+        GroupEntry entry = groups.get(groupName);
+        if (snapshot != null && entry != null && entry.source == snapshot && groups.remove(groupName, entry)) {
+            release(entry);
+            documentationMetrics.recordCachedBytes(groupName, 0);
+        }
+    }
+
+    /**
+     * 分组缓存占用的字节数
+     *
+     * @param groupName 分组名称
+     * @return 所有host与basePath下序列化结果的字节数之和
+     */
+    public long retainedBytes(String groupName) {
+        GroupEntry entry = groups.get(groupName);
+        return entry == null ? 0 : entry.retainedBytes;
+    }
+
+    /**
+     * 移除分组的缓存
+     *
+     * @param groupName 分组名称
+     */
+    public void evict(String groupName) {
+        release(groups.remove(groupName));
+        documentationMetrics.recordCachedBytes(groupName, 0);
+    }
+
+    public void clear() {
+        for (String groupName : groups.keySet()) {
+            evict(groupName);
+        }
+    }
+
+    private void release(GroupEntry entry) {
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            entry.released = true;
+            for (SwaggerApiDocs apiDocs : entry.variants.values()) {
+                apiDocsStorage.release(apiDocs);
+            }
+            entry.variants.clear();
+            entry.retainedBytes = 0;
+            entry.order.clear();
+            entry.template = null;
+        }
+    }
+
+    private SwaggerApiDocsWriter.Template template(Object source) {
+        try {
+            if (source instanceof Snapshot) {
+                return apiDocsWriter.template(Files.readAllBytes(((Snapshot) source).getFile()));
+            }
+            return apiDocsWriter.template((Documentation) source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] serialize(Documentation documentation, SwaggerApiDocsWriter.Target target) {
+        try {
+            return apiDocsWriter.toBytes(apiDocsWriter.map(documentation, target));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 单个分组的缓存，按 host 与 basePath 区分不同的序列化结果
+     */
+    private static class GroupEntry {
+
+        /**
+         * 生成缓存的文档：扫描得到的 Documentation，或从快照恢复的 {@link Snapshot}
+         */
+        private final Object source;
+        private final Map<String, SwaggerApiDocs> variants = new ConcurrentHashMap<>();
+
+        /**
+         * 模板对应组合以外的组合，按生成顺序排列，由 GroupEntry 的锁保护
+         */
+        private final Deque<String> order = new ArrayDeque<>();
+
+        /**
+         * 由 GroupEntry 的锁保护
+         */
+        private SwaggerApiDocsWriter.Template template;
+
+        /**
+         * 已经被替换或移除，由 GroupEntry 的锁保护
+         */
+        private boolean released;
+
+        /**
+         * 所有组合占用的字节数之和，由 GroupEntry 的锁保护写入
+         */
+        private volatile long retainedBytes;
+
+        GroupEntry(Object source) {
+            this.source = source;
+        }
+
+        void put(String key, SwaggerApiDocs apiDocs) {
+            variants.put(key, apiDocs);
+            retainedBytes += apiDocs.retainedBytes();
+        }
+
+        SwaggerApiDocs remove(String key) {
+            SwaggerApiDocs apiDocs = variants.remove(key);
+            if (apiDocs != null) {
+                retainedBytes -= apiDocs.retainedBytes();
+            }
+            return apiDocs;
+        }
+    }
+
+    /**
+     * 快照中的分组文档：以占位内容代替 host 与 basePath 的模板文件，以及按请求计算 host 与 basePath 所需的文档配置
+     */
+    public static class Snapshot {
+
+        private final String basePath;
+        private final String host;
+        private final Path file;
+
+        /**
+         * @param basePath 文档配置的basePath
+         * @param host     文档配置的host，未配置时为null
+         * @param file     模板文件
+         */
+        public Snapshot(String basePath, String host, Path file) {
+            this.basePath = basePath;
+            this.host = host;
+            this.file = file;
+        }
+
+        public String getBasePath() {
+            return basePath;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+    }
+}
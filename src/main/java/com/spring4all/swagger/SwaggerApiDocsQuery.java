@@ -0,0 +1,73 @@
+package com.spring4all.swagger;
+
+import lombok.Data;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * api-docs的过滤与分页条件，对应请求参数 tag、pathPrefix、operationId、page 与 size
+ */
+@Data
+public class SwaggerApiDocsQuery {
+
+    /**
+     * 只保留包含该标签的接口
+     */
+    private String tag;
+
+    /**
+     * 只保留路径以此开头的接口
+     */
+    private String pathPrefix;
+
+    /**
+     * 只保留该operationId对应的接口
+     */
+    private String operationId;
+
+    /**
+     * 页码，从0开始
+     */
+    private int page;
+
+    /**
+     * 每页的接口数量，小于等于0时不分页
+     */
+    private int size;
+
+    /**
+     * 从请求参数中读取过滤条件
+     *
+     * @param request 当前请求
+     * @return 请求中没有任何过滤或分页参数时返回null
+     */
+    public static SwaggerApiDocsQuery from(HttpServletRequest request) {
+        String tag = request.getParameter("tag");
+        String pathPrefix = request.getParameter("pathPrefix");
+        String operationId = request.getParameter("operationId");
+        String page = request.getParameter("page");
+        String size = request.getParameter("size");
+        if (tag == null && pathPrefix == null && operationId == null && page == null && size == null) {
+            return null;
+        }
+        SwaggerApiDocsQuery query = new SwaggerApiDocsQuery();
+        query.setTag(StringUtils.isEmpty(tag) ? null : tag);
+        query.setPathPrefix(StringUtils.isEmpty(pathPrefix) ? null : pathPrefix);
+        query.setOperationId(StringUtils.isEmpty(operationId) ? null : operationId);
+        query.setPage(parse(page));
+        query.setSize(parse(size));
+        return query;
+    }
+
+    private static int parse(String value) {
+        if (StringUtils.isEmpty(value)) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.spring4all.swagger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 序列化后的api-docs的存储方式，按 swagger.cache.storage 将内容保存在堆内、直接内存或内存映射的临时文件中
+ */
+@Slf4j
+public class SwaggerApiDocsStorage implements DisposableBean {
+
+    /**
+     * 释放后保留文件的时间：sendfile 在请求返回后才由容器按文件名打开，立即删除可能导致正在进行的响应失败
+     */
+    static final long RELEASE_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private final SwaggerProperties.Storage storage;
+
+    private final long releaseDelayMillis;
+
+    /**
+     * 已经释放、等待删除的文件，由自身的锁保护
+     */
+    private final Deque<ReleasedFile> releasedFiles = new ArrayDeque<>();
+
+    /**
+     * 内存映射存储的临时目录，首次使用时创建
+     */
+    private volatile Path directory;
+
+    public SwaggerApiDocsStorage(SwaggerProperties.Storage storage) {
+        this(storage, RELEASE_DELAY_MILLIS);
+    }
+
+    SwaggerApiDocsStorage(SwaggerProperties.Storage storage, long releaseDelayMillis) {
+        this.storage = storage;
+        this.releaseDelayMillis = releaseDelayMillis;
+    }
+
+    /**
+     * 保存序列化后的api-docs
+     *
+     * @param content json内容
+     * @return api-docs
+     */
+    public SwaggerApiDocs store(byte[] content) {
+        switch (storage) {
+            case DIRECT:
+                byte[] gzipContent = SwaggerApiDocs.gzip(content);
+                return new SwaggerApiDocs(direct(content), direct(gzipContent), SwaggerApiDocs.etag(content),
+                        null, null);
+            case MAPPED:
+                deleteReleasedFiles();
+                return mapped(content);
+            default:
+                return new SwaggerApiDocs(content);
+        }
+    }
+
+    private static ByteBuffer direct(byte[] content) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+        buffer.put(content);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * 每次保存都写入新的文件，不会覆盖其他api-docs正在映射或发送的文件
+     */
+    private SwaggerApiDocs mapped(byte[] content) {
+        String etag = SwaggerApiDocs.etag(content);
+        String name = etag.substring(1, etag.length() - 1) + "-";
+        try {
+            Path contentFile = Files.createTempFile(directory(), name, ".json");
+            Path gzipContentFile = Files.createTempFile(directory(), name, ".json.gz");
+            ByteBuffer mappedContent = map(contentFile, content);
+            ByteBuffer mappedGzipContent = map(gzipContentFile, SwaggerApiDocs.gzip(content));
+            return new SwaggerApiDocs(mappedContent, mappedGzipContent, etag,
+                    contentFile.toFile(), gzipContentFile.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ByteBuffer map(Path file, byte[] content) throws IOException {
+        Files.write(file, content);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * 释放不再使用的api-docs，内存映射存储的文件在 {@link #RELEASE_DELAY_MILLIS} 后删除。
+     * 文件被删除后已经建立的映射仍然有效，使用中的内容不受影响
+     *
+     * @param apiDocs api-docs，可以为null
+     */
+    public void release(SwaggerApiDocs apiDocs) {
+        if (apiDocs == null || apiDocs.getContentFile() == null) {
+            return;
+        }
+        long deleteAt = System.currentTimeMillis() + releaseDelayMillis;
+        synchronized (releasedFiles) {
+            releasedFiles.add(new ReleasedFile(apiDocs.getContentFile(), deleteAt));
+            releasedFiles.add(new ReleasedFile(apiDocs.getGzipContentFile(), deleteAt));
+        }
+        deleteReleasedFiles();
+    }
+
+    private void deleteReleasedFiles() {
+        long now = System.currentTimeMillis();
+        synchronized (releasedFiles) {
+            while (!releasedFiles.isEmpty() && releasedFiles.peek().deleteAt <= now) {
+                File file = releasedFiles.poll().file;
+                if (file.exists() && !file.delete()) {
+                    // 部分平台不能删除仍被映射的文件，应用关闭时随目录一起删除
+                    log.debug("Unable to delete swagger api-docs file {}", file);
+                }
+            }
+        }
+    }
+
+    private Path directory() throws IOException {
+        Path dir = directory;
+        if (dir == null) {
+            synchronized (this) {
+                dir = directory;
+                if (dir == null) {
+                    dir = Files.createTempDirectory("swagger-api-docs");
+                    directory = dir;
+                }
+            }
+        }
+        return dir;
+    }
+
+    @Override
+    public void destroy() {
+        Path dir = directory;
+        if (dir != null && !FileSystemUtils.deleteRecursively(dir.toFile())) {
+            log.warn("Unable to delete swagger api-docs directory {}", dir);
+        }
+    }
+
+    private static class ReleasedFile {
+
+        private final File file;
+        private final long deleteAt;
+
+        ReleasedFile(File file, long deleteAt) {
+            this.file = file;
+            this.deleteAt = deleteAt;
+        }
+    }
+}
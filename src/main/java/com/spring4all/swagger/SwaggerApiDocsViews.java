@@ -0,0 +1,401 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import springfox.documentation.service.Documentation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * api-docs的过滤视图：按标签、路径前缀或operationId筛选接口并分页，只序列化选中的接口及其引用的模型。
+ * 过滤结果按分组、过滤条件与文档版本（缓存的 SwaggerApiDocs 的ETag，或未缓存时的 host 与 basePath）缓存，
+ * 最多缓存 swagger.cache.max-views 个，超出时移除最久未使用的，相同的过滤条件同时未命中时只生成一次。
+ * 每个分组只保留最近一个版本解析后的json树，由软引用持有，内存不足时可以被回收，不同的过滤条件与标签列表共用；
+ * 未缓存序列化结果时，缓存项只弱引用生成它的文档，分组重新扫描后旧的文档可以被回收，对应的缓存项在下一次访问时重新生成
+ */
+public class SwaggerApiDocsViews {
+
+    private static final String DEFINITION_REF_PREFIX = "#/definitions/";
+
+    private static final Set<String> HTTP_METHODS = new HashSet<>(
+            Arrays.asList("get", "put", "post", "delete", "options", "head", "patch"));
+
+    private final SwaggerApiDocsWriter apiDocsWriter;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 过滤结果，按访问顺序排列，由自身的锁保护
+     */
+    private final Map<List<Object>, CachedView> views;
+
+    /**
+     * 正在生成的过滤结果
+     */
+    private final Map<List<Object>, Loading> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 每个分组最近一次解析的完整文档
+     */
+    private final Map<String, ParsedTree> trees = new ConcurrentHashMap<>();
+
+    public SwaggerApiDocsViews(SwaggerApiDocsWriter apiDocsWriter, int maxViews) {
+        this.apiDocsWriter = apiDocsWriter;
+        int capacity = Math.max(maxViews, 0);
+        this.views = new LinkedHashMap<List<Object>, CachedView>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, CachedView> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * 按条件筛选序列化后的api-docs
+     *
+     * @param groupName 分组名称
+     * @param apiDocs   完整的api-docs
+     * @param query     过滤条件
+     * @return 过滤结果
+     */
+    public View query(String groupName, SwaggerApiDocs apiDocs, SwaggerApiDocsQuery query) {
+        // ETag由内容计算，相同ETag的api-docs过滤结果相同
+        return view(Arrays.asList(groupName, apiDocs.getEtag(), query), null,
+                () -> query(tree(groupName, apiDocs), query));
+    }
+
+    /**
+     * 按条件筛选未缓存序列化结果的分组文档
+     *
+     * @param documentation 分组文档
+     * @param target        host与basePath
+     * @param query         过滤条件
+     * @return 过滤结果
+     */
+    public View query(Documentation documentation, SwaggerApiDocsWriter.Target target, SwaggerApiDocsQuery query) {
+        return view(Arrays.asList(documentation.getGroupName(), target.key(), query), documentation,
+                () -> query(tree(documentation, target), query));
+    }
+
+    /**
+     * 文档中的标签名称，按文档中的顺序
+     *
+     * @param groupName 分组名称
+     * @param apiDocs   完整的api-docs
+     * @return 标签名称
+     */
+    public List<String> tagNames(String groupName, SwaggerApiDocs apiDocs) {
+        List<String> tagNames = new ArrayList<>();
+        for (JsonNode tag : tree(groupName, apiDocs).path("tags")) {
+            tagNames.add(tag.path("name").asText());
+        }
+        return tagNames;
+    }
+
+    /**
+     * 缓存的过滤结果，生成它的文档已经变化时重新生成
+     *
+     * @param source 生成过滤结果的文档，为null时只按key判断
+     */
+    private View view(List<Object> key, Object source, Supplier<View> loader) {
+        View cached = cached(key, source);
+        if (cached != null) {
+            return cached;
+        }
+        Loading load = new Loading(source);
+        Loading inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null && inFlight.source == source) {
+            return join(key, inFlight.view);
+        }
+        if (inFlight != null) {
+            // 正在生成的是分组重新扫描前的文档，不等待
+            return loader.get();
+        }
+        try {
+            View view = cached(key, source);
+            if (view == null) {
+                view = loader.get();
+                synchronized (views) {
+                    views.put(key, new CachedView(source, view));
+                }
+            }
+            load.view.complete(view);
+            return view;
+        } catch (RuntimeException | Error e) {
+            load.view.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    private View cached(List<Object> key, Object source) {
+        CachedView cached;
+        synchronized (views) {
+            cached = views.get(key);
+        }
+        if (cached != null && (cached.source == null || cached.source.get() == source)) {
+            return cached.view;
+        }
+        return null;
+    }
+
+    private static View join(List<Object> key, CompletableFuture<View> view) {
+        try {
+            return view.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Unable to filter swagger api-docs for group " + key.get(0), e.getCause());
+        }
+    }
+
+    private ObjectNode tree(String groupName, SwaggerApiDocs apiDocs) {
+        // ETag由内容计算，相同ETag的api-docs解析结果相同
+        return trees.computeIfAbsent(groupName, name -> new ParsedTree())
+                .get(apiDocs.getEtag(), null, () -> parse(apiDocs));
+    }
+
+    private ObjectNode tree(Documentation documentation, SwaggerApiDocsWriter.Target target) {
+        return trees.computeIfAbsent(documentation.getGroupName(), name -> new ParsedTree())
+                .get(target.key(), documentation,
+                        () -> objectMapper.valueToTree(apiDocsWriter.map(documentation, target)));
+    }
+
+    private ObjectNode parse(SwaggerApiDocs apiDocs) {
+        try (InputStream in = new ByteBufferBackedInputStream(apiDocs.getContent())) {
+            return (ObjectNode) objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private View query(ObjectNode tree, SwaggerApiDocsQuery query) {
+        // 按文档中的顺序收集匹配的接口
+        List<Operation> matched = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> paths = tree.path("paths").fields();
+        while (paths.hasNext()) {
+            Map.Entry<String, JsonNode> path = paths.next();
+            if (query.getPathPrefix() != null && !path.getKey().startsWith(query.getPathPrefix())) {
+                continue;
+            }
+            Iterator<Map.Entry<String, JsonNode>> operations = path.getValue().fields();
+            while (operations.hasNext()) {
+                Map.Entry<String, JsonNode> operation = operations.next();
+                if (HTTP_METHODS.contains(operation.getKey()) && matches(operation.getValue(), query)) {
+                    matched.add(new Operation(path.getKey(), operation.getKey(), operation.getValue()));
+                }
+            }
+        }
+
+        int from = 0;
+        int to = matched.size();
+        if (query.getSize() > 0) {
+            from = (int) Math.min((long) query.getPage() * query.getSize(), matched.size());
+            to = Math.min(from + query.getSize(), matched.size());
+        }
+
+        ObjectNode selectedPaths = objectMapper.createObjectNode();
+        Set<String> tags = new HashSet<>();
+        for (Operation operation : matched.subList(from, to)) {
+            ObjectNode pathItem = (ObjectNode) selectedPaths.get(operation.path);
+            if (pathItem == null) {
+                pathItem = selectedPaths.putObject(operation.path);
+                // 保留路径级别的公共参数等非接口字段
+                Iterator<Map.Entry<String, JsonNode>> fields = tree.path("paths").path(operation.path).fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if (!HTTP_METHODS.contains(field.getKey())) {
+                        pathItem.set(field.getKey(), field.getValue());
+                    }
+                }
+            }
+            pathItem.set(operation.method, operation.node);
+            for (JsonNode tag : operation.node.path("tags")) {
+                tags.add(tag.asText());
+            }
+        }
+
+        ObjectNode view = objectMapper.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = tree.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            switch (field.getKey()) {
+                case "paths":
+                    view.set("paths", selectedPaths);
+                    break;
+                case "definitions":
+                    view.set("definitions", referencedDefinitions(selectedPaths, field.getValue()));
+                    break;
+                case "tags":
+                    ArrayNode selectedTags = view.putArray("tags");
+                    for (JsonNode tag : field.getValue()) {
+                        if (tags.contains(tag.path("name").asText())) {
+                            selectedTags.add(tag);
+                        }
+                    }
+                    break;
+                default:
+                    view.set(field.getKey(), field.getValue());
+            }
+        }
+        try {
+            return new View(objectMapper.writeValueAsBytes(view), matched.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean matches(JsonNode operation, SwaggerApiDocsQuery query) {
+        if (query.getOperationId() != null && !query.getOperationId().equals(operation.path("operationId").asText())) {
+            return false;
+        }
+        if (query.getTag() == null) {
+            return true;
+        }
+        for (JsonNode tag : operation.path("tags")) {
+            if (query.getTag().equals(tag.asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 选中的接口直接或间接引用的模型
+     */
+    private ObjectNode referencedDefinitions(JsonNode paths, JsonNode definitions) {
+        Set<String> names = new HashSet<>();
+        Deque<JsonNode> pending = new ArrayDeque<>();
+        pending.push(paths);
+        while (!pending.isEmpty()) {
+            JsonNode node = pending.pop();
+            JsonNode ref = node.get("$ref");
+            if (ref != null && ref.isTextual() && ref.asText().startsWith(DEFINITION_REF_PREFIX)) {
+                String name = ref.asText().substring(DEFINITION_REF_PREFIX.length());
+                JsonNode definition = definitions.get(name);
+                if (definition != null && names.add(name)) {
+                    pending.push(definition);
+                }
+            }
+            for (JsonNode child : node) {
+                if (child.isContainerNode()) {
+                    pending.push(child);
+                }
+            }
+        }
+
+        // 保持模型在完整文档中的顺序
+        ObjectNode referenced = objectMapper.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = definitions.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (names.contains(field.getKey())) {
+                referenced.set(field.getKey(), field.getValue());
+            }
+        }
+        return referenced;
+    }
+
+    private static class CachedView {
+
+        private final WeakReference<Object> source;
+        private final View view;
+
+        CachedView(Object source, View view) {
+            this.source = source == null ? null : new WeakReference<>(source);
+            this.view = view;
+        }
+    }
+
+    private static class Loading {
+
+        private final Object source;
+        private final CompletableFuture<View> view = new CompletableFuture<>();
+
+        Loading(Object source) {
+            this.source = source;
+        }
+    }
+
+    /**
+     * 分组解析后的完整文档，只读，由自身的锁保护，同一版本只解析一次
+     */
+    private static class ParsedTree {
+
+        private Object version;
+        private WeakReference<Object> source;
+        private SoftReference<ObjectNode> tree;
+
+        /**
+         * @param version 文档版本，缓存的api-docs的ETag或未缓存时的 host 与 basePath
+         * @param source  生成文档的对象，为null时只按版本判断
+         */
+        synchronized ObjectNode get(Object version, Object source, Supplier<ObjectNode> parser) {
+            ObjectNode parsed = tree == null ? null : tree.get();
+            if (parsed != null && version.equals(this.version)
+                    && (this.source == null ? source == null : this.source.get() == source)) {
+                return parsed;
+            }
+            parsed = parser.get();
+            this.version = version;
+            this.source = source == null ? null : new WeakReference<>(source);
+            this.tree = new SoftReference<>(parsed);
+            return parsed;
+        }
+    }
+
+    private static class Operation {
+
+        private final String path;
+        private final String method;
+        private final JsonNode node;
+
+        Operation(String path, String method, JsonNode node) {
+            this.path = path;
+            this.method = method;
+            this.node = node;
+        }
+    }
+
+    /**
+     * 过滤结果
+     */
+    public static class View {
+
+        private final SwaggerApiDocs apiDocs;
+        private final int total;
+
+        View(byte[] content, int total) {
+            this.apiDocs = new SwaggerApiDocs(content);
+            this.total = total;
+        }
+
+        /**
+         * 只包含当前页接口的api-docs
+         *
+         * @return api-docs
+         */
+        public SwaggerApiDocs getApiDocs() {
+            return apiDocs;
+        }
+
+        /**
+         * 匹配条件的接口总数
+         *
+         * @return 接口总数
+         */
+        public int getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.collect.ImmutableListMultimap;
+import io.swagger.models.Swagger;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponents;
+import springfox.documentation.schema.ModelReference;
+import springfox.documentation.service.ApiDescription;
+import springfox.documentation.service.ApiListing;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.service.ResourceListing;
+import springfox.documentation.spring.web.json.JacksonModuleRegistrar;
+import springfox.documentation.swagger.common.HostNameProvider;
+import springfox.documentation.swagger2.mappers.ServiceModelToSwagger2Mapper;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static springfox.documentation.builders.BuilderDefaults.nullToEmptyList;
+
+/**
+ * api-docs序列化：将 Documentation 转换为 Swagger 模型，并按与springfox JsonSerializer 相同的Jackson配置输出json。
+ * 除了序列化为字节数组外，还支持通过 {@link JsonGenerator} 直接写入输出流，paths 与 definitions 逐项转换并输出，
+ * 不在内存中生成完整的 Swagger 模型与json。
+ */
+public class SwaggerApiDocsWriter {
+
+    private static final String DEFAULT_HOST = "DEFAULT";
+
+    /**
+     * 生成模板时 host 与 basePath 的占位内容
+     */
+    private static final String HOST_PLACEHOLDER = "__swagger_host__";
+    private static final String BASE_PATH_PLACEHOLDER = "__swagger_base_path__";
+
+    /**
+     * 逐项转换时使用的空 ResourceListing，不生成 info 与 securityDefinitions
+     */
+    private static final ResourceListing EMPTY_RESOURCE_LISTING =
+            new ResourceListing(null, Collections.emptyList(), Collections.emptyList(), null);
+
+    private final ServiceModelToSwagger2Mapper mapper;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String hostNameOverride;
+
+    /**
+     * 逐项输出时不刷新输出流，由底层缓冲区决定何时写出
+     */
+    private final ObjectWriter entryWriter;
+
+    public SwaggerApiDocsWriter(ServiceModelToSwagger2Mapper mapper,
+                                List<JacksonModuleRegistrar> moduleRegistrars,
+                                String hostNameOverride) {
+        this.mapper = mapper;
+        this.hostNameOverride = hostNameOverride;
+        for (JacksonModuleRegistrar moduleRegistrar : moduleRegistrars) {
+            moduleRegistrar.maybeRegisterModule(objectMapper);
+        }
+        this.entryWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * 计算api-docs的host与basePath，计算方式与 Swagger2Controller 保持一致
+     *
+     * @param documentation 分组文档
+     * @param request       当前请求
+     * @return host与basePath
+     */
+    public Target target(Documentation documentation, HttpServletRequest request) {
+        return target(documentation.getBasePath(), documentation.getHost(), request);
+    }
+
+    /**
+     * 按文档配置的basePath与host计算api-docs的host与basePath，用于没有 Documentation 的快照
+     *
+     * @param documentationBasePath 文档配置的basePath
+     * @param documentationHost     文档配置的host，未配置时按请求计算
+     * @param request               当前请求
+     * @return host与basePath
+     */
+    public Target target(String documentationBasePath, String documentationHost, HttpServletRequest request) {
+        UriComponents uriComponents = HostNameProvider.componentsFrom(request, documentationBasePath);
+        String basePath = StringUtils.isEmpty(uriComponents.getPath()) ? "/" : uriComponents.getPath();
+        String host = StringUtils.isEmpty(documentationHost) ? hostName(uriComponents) : documentationHost;
+        return new Target(host, basePath);
+    }
+
+    /**
+     * 转换为 Swagger 模型
+     *
+     * @param documentation 分组文档
+     * @param target        host与basePath
+     * @return Swagger 模型
+     */
+    public Swagger map(Documentation documentation, Target target) {
+        Swagger swagger = mapper.mapDocumentation(documentation);
+        swagger.basePath(target.getBasePath());
+        swagger.host(target.getHost());
+        return swagger;
+    }
+
+    /**
+     * 序列化为json
+     *
+     * @param swagger Swagger 模型
+     * @return UTF-8编码的json
+     * @throws IOException 序列化失败
+     */
+    public byte[] toBytes(Swagger swagger) throws IOException {
+        return objectMapper.writeValueAsBytes(swagger);
+    }
+
+    /**
+     * 序列化一次与 host、basePath 无关的模板，不同 host 与 basePath 的api-docs由模板替换这两处内容得到，不需要重新转换与序列化。
+     * 文档指定了host时只替换basePath
+     *
+     * @param documentation 分组文档
+     * @return 模板
+     * @throws IOException 序列化失败
+     */
+    Template template(Documentation documentation) throws IOException {
+        return template(templateContent(documentation));
+    }
+
+    /**
+     * 模板的内容：host 与 basePath 为占位内容的api-docs，文档指定了host时保留该host
+     *
+     * @param documentation 分组文档
+     * @return UTF-8编码的json
+     * @throws IOException 序列化失败
+     */
+    byte[] templateContent(Documentation documentation) throws IOException {
+        boolean fixedHost = !StringUtils.isEmpty(documentation.getHost());
+        return toBytes(map(documentation,
+                new Target(fixedHost ? documentation.getHost() : HOST_PLACEHOLDER, BASE_PATH_PLACEHOLDER)));
+    }
+
+    /**
+     * 由 {@link #templateContent(Documentation)} 的结果生成模板，如从快照中读取的内容
+     *
+     * @param content 模板的内容
+     * @return 模板
+     */
+    Template template(byte[] content) {
+        List<Template.Field> fields = new ArrayList<>(2);
+        Template.Field host = Template.Field.find(content, HOST_PLACEHOLDER, true);
+        if (host != null) {
+            fields.add(host);
+        }
+        Template.Field basePath = Template.Field.find(content, BASE_PATH_PLACEHOLDER, false);
+        if (basePath != null) {
+            fields.add(basePath);
+        }
+        fields.sort(Comparator.comparingInt(field -> field.start));
+        return new Template(ByteBuffer.wrap(content), fields);
+    }
+
+    /**
+     * 流式写入json：不生成完整的 Swagger 模型。其他字段输出后，paths 按路径、definitions 按模型逐项转换为 Swagger 模型，
+     * 序列化后直接写入输出流，同一时刻只有一个路径或模型的转换结果在内存中。
+     * 内容与 {@link #toBytes(Swagger)} 相同，但 paths 与 definitions 位于最后
+     *
+     * @param documentation 分组文档
+     * @param target        host与basePath
+     * @param out           输出流，不会被关闭
+     * @throws IOException 写入失败
+     */
+    public void write(Documentation documentation, Target target, OutputStream out) throws IOException {
+        // 与 ServiceModelToSwagger2Mapper 相同：路径与模型按名称排序，同名的模型以最后一个 ApiListing 中的为准
+        Map<String, List<ApiDescription>> apis = new TreeMap<>();
+        Map<String, springfox.documentation.schema.Model> models = new TreeMap<>();
+        for (ApiListing apiListing : documentation.getApiListings().values()) {
+            for (ApiDescription api : apiListing.getApis()) {
+                apis.computeIfAbsent(api.getPath(), path -> new ArrayList<>()).add(api);
+            }
+            models.putAll(apiListing.getModels());
+        }
+        // 模型的父类型由其他模型的 subTypes 决定，与 InheritanceDeterminer 一致
+        Map<String, Map.Entry<String, springfox.documentation.schema.Model>> parents = new HashMap<>();
+        for (Map.Entry<String, springfox.documentation.schema.Model> model : models.entrySet()) {
+            for (ModelReference subType : nullToEmptyList(model.getValue().getSubTypes())) {
+                parents.put(subType.getType(), model);
+            }
+        }
+
+        Swagger swagger = map(header(documentation), target);
+        swagger.setPaths(null);
+        swagger.setDefinitions(null);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            Iterator<Map.Entry<String, JsonNode>> fields = objectMapper.valueToTree(swagger).fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                generator.writeFieldName(field.getKey());
+                generator.writeTree(field.getValue());
+            }
+            if (!apis.isEmpty()) {
+                generator.writeObjectFieldStart("paths");
+                for (Map.Entry<String, List<ApiDescription>> entry : apis.entrySet()) {
+                    Swagger path = mapper.mapDocumentation(
+                            fragment(documentation, entry.getValue(), Collections.emptyMap()));
+                    generator.writeFieldName(entry.getKey());
+                    entryWriter.writeValue(generator, path.getPaths().get(entry.getKey()));
+                }
+                generator.writeEndObject();
+            }
+            if (!models.isEmpty()) {
+                generator.writeObjectFieldStart("definitions");
+                for (Map.Entry<String, springfox.documentation.schema.Model> entry : models.entrySet()) {
+                    Map<String, springfox.documentation.schema.Model> model = new HashMap<>(2);
+                    model.put(entry.getKey(), entry.getValue());
+                    Map.Entry<String, springfox.documentation.schema.Model> parent =
+                            parents.get(entry.getValue().getName());
+                    if (parent != null && !parent.getKey().equals(entry.getKey())) {
+                        model.put(parent.getKey(), parent.getValue());
+                    }
+                    Swagger definition = mapper.mapDocumentation(
+                            fragment(documentation, Collections.emptyList(), model));
+                    generator.writeFieldName(entry.getKey());
+                    entryWriter.writeValue(generator, definition.getDefinitions().get(entry.getKey()));
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * 不包含接口与模型的分组文档，用于转换 paths 与 definitions 以外的字段
+     */
+    private static Documentation header(Documentation documentation) {
+        return new Documentation(documentation.getGroupName(), documentation.getBasePath(), documentation.getTags(),
+                ImmutableListMultimap.of(), documentation.getResourceListing(),
+                new LinkedHashSet<>(documentation.getProduces()), new LinkedHashSet<>(documentation.getConsumes()),
+                documentation.getHost(), new LinkedHashSet<>(documentation.getSchemes()),
+                documentation.getVendorExtensions());
+    }
+
+    /**
+     * 只包含一个路径的接口或一个模型的分组文档，用于逐项转换，其他字段为空
+     */
+    private static Documentation fragment(Documentation documentation, List<ApiDescription> apis,
+                                          Map<String, springfox.documentation.schema.Model> models) {
+        ApiListing apiListing = new ApiListing(null, null, null, Collections.emptySet(), Collections.emptySet(), null,
+                Collections.emptySet(), Collections.emptyList(), apis, models, null, 0, Collections.emptySet());
+        return new Documentation(documentation.getGroupName(), null, Collections.emptySet(),
+                ImmutableListMultimap.of(documentation.getGroupName(), apiListing), EMPTY_RESOURCE_LISTING,
+                Collections.emptySet(), Collections.emptySet(), null, Collections.emptySet(), Collections.emptyList());
+    }
+
+    private String hostName(UriComponents uriComponents) {
+        if (DEFAULT_HOST.equals(hostNameOverride)) {
+            String host = uriComponents.getHost();
+            int port = uriComponents.getPort();
+            if (port > -1) {
+                return String.format("%s:%d", host, port);
+            }
+            return host;
+        }
+        return hostNameOverride;
+    }
+
+    /**
+     * api-docs的host与basePath，同一分组不同的host与basePath会生成不同的api-docs
+     */
+    public static class Target {
+
+        private final String host;
+        private final String basePath;
+
+        public Target(String host, String basePath) {
+            this.host = host;
+            this.basePath = basePath;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public String getBasePath() {
+            return basePath;
+        }
+
+        String key() {
+            return host + "|" + basePath;
+        }
+    }
+
+    /**
+     * 序列化后的api-docs及其中 host 与 basePath 值的位置
+     */
+    static class Template {
+
+        private final ByteBuffer content;
+        private final List<Field> fields;
+
+        Template(ByteBuffer content, List<Field> fields) {
+            this.content = content;
+            this.fields = fields;
+        }
+
+        /**
+         * 替换 host 与 basePath 生成api-docs
+         *
+         * @param target host与basePath
+         * @return UTF-8编码的json
+         */
+        byte[] render(Target target) {
+            ByteBuffer source = content.duplicate();
+            int offset = source.position();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(source.remaining() + 64);
+            int position = 0;
+            for (Field field : fields) {
+                copy(source, offset + position, offset + field.start, out);
+                byte[] value = field.value(target);
+                out.write(value, 0, value.length);
+                position = field.end;
+            }
+            copy(source, offset + position, source.limit(), out);
+            return out.toByteArray();
+        }
+
+        /**
+         * 以按 target 生成的api-docs作为新的模板，之后不再需要保留占位内容的序列化结果
+         *
+         * @param rendered 按 target 生成的api-docs内容
+         * @param target   生成时使用的host与basePath
+         * @return 新的模板
+         */
+        Template rebase(ByteBuffer rendered, Target target) {
+            List<Field> rebased = new ArrayList<>(fields.size());
+            int shift = 0;
+            for (Field field : fields) {
+                int length = field.value(target).length;
+                rebased.add(new Field(field.host, field.prefix, field.start + shift, field.start + shift + length));
+                shift += length - (field.end - field.start);
+            }
+            return new Template(rendered, rebased);
+        }
+
+        private static void copy(ByteBuffer source, int from, int to, ByteArrayOutputStream out) {
+            if (source.hasArray()) {
+                out.write(source.array(), source.arrayOffset() + from, to - from);
+                return;
+            }
+            byte[] chunk = new byte[Math.min(to - from, 8192)];
+            for (int position = from; position < to; position += chunk.length) {
+                int length = Math.min(chunk.length, to - position);
+                ByteBuffer slice = source.duplicate();
+                slice.position(position);
+                slice.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+
+        /**
+         * host 或 basePath 的值（包括引号）在内容中的位置。host 的位置包括前面的 ,"host": ，
+         * host 为null时整个字段都不输出，与Jackson序列化 Swagger 模型的结果一致
+         */
+        private static class Field {
+
+            private static final byte[] HOST_PREFIX = ",\"host\":".getBytes(StandardCharsets.UTF_8);
+
+            private final boolean host;
+            private final byte[] prefix;
+            private final int start;
+            private final int end;
+
+            Field(boolean host, byte[] prefix, int start, int end) {
+                this.host = host;
+                this.prefix = prefix;
+                this.start = start;
+                this.end = end;
+            }
+
+            byte[] value(Target target) {
+                String value = host ? target.getHost() : target.getBasePath();
+                if (value == null) {
+                    return prefix.length > 0 ? new byte[0] : "null".getBytes(StandardCharsets.UTF_8);
+                }
+                byte[] quoted = JsonStringEncoder.getInstance().quoteAsUTF8(value);
+                byte[] json = new byte[prefix.length + quoted.length + 2];
+                System.arraycopy(prefix, 0, json, 0, prefix.length);
+                json[prefix.length] = '"';
+                System.arraycopy(quoted, 0, json, prefix.length + 1, quoted.length);
+                json[json.length - 1] = '"';
+                return json;
+            }
+
+            static Field find(byte[] content, String placeholder, boolean host) {
+                if (host) {
+                    Field field = find(content, placeholder, true, HOST_PREFIX);
+                    if (field != null) {
+                        return field;
+                    }
+                }
+                return find(content, placeholder, host, new byte[0]);
+            }
+
+            private static Field find(byte[] content, String placeholder, boolean host, byte[] prefix) {
+                byte[] quoted = ("\"" + placeholder + "\"").getBytes(StandardCharsets.UTF_8);
+                byte[] pattern = new byte[prefix.length + quoted.length];
+                System.arraycopy(prefix, 0, pattern, 0, prefix.length);
+                System.arraycopy(quoted, 0, pattern, prefix.length, quoted.length);
+                outer:
+                for (int i = 0; i <= content.length - pattern.length; i++) {
+                    for (int j = 0; j < pattern.length; j++) {
+                        if (content[i + j] != pattern[j]) {
+                            continue outer;
+                        }
+                    }
+                    return new Field(host, prefix, i, i + pattern.length);
+                }
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.web.util.UriUtils;
+import springfox.documentation.swagger.web.SecurityConfiguration;
+import springfox.documentation.swagger.web.SecurityConfigurationBuilder;
+import springfox.documentation.swagger.web.SwaggerResource;
+import springfox.documentation.swagger.web.UiConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 将swagger-ui静态资源、所有分组的api-docs与 swagger-resources 导出为一个可以直接部署到CDN的静态目录：
+ * <pre>
+ * swagger-ui.html
+ * webjars/springfox-swagger-ui/...
+ * api-docs/{分组}.json、api-docs/{分组}.json.gz
+ * swagger-resources/index.json
+ * swagger-resources/configuration/ui
+ * swagger-resources/configuration/security
+ * </pre>
+ * 由 swagger-spring-boot-maven-plugin 的 bundle 目标在构建时调用，运行时可以配置 swagger.enabled=false 完全关闭文档功能
+ */
+public class SwaggerBundleExporter {
+
+    /**
+     * api-docs所在的子目录
+     */
+    public static final String API_DOCS_DIRECTORY = "api-docs";
+
+    /**
+     * swagger-resources 的内容，静态托管时需要将 /swagger-resources 映射到该文件
+     */
+    public static final String RESOURCES_INDEX = "swagger-resources/index.json";
+
+    static final String UI_RESOURCES_LOCATION = "META-INF/resources/";
+    static final String[] UI_RESOURCES = {"swagger-ui.html", "webjars/springfox-swagger-ui/**"};
+
+    private final ApplicationContext applicationContext;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public SwaggerBundleExporter(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * 导出静态文档目录
+     *
+     * @param outputDirectory 输出目录
+     * @return 导出的分组
+     * @throws IOException 写文件失败
+     */
+    public List<String> export(File outputDirectory) throws IOException {
+        List<String> groupNames = new SwaggerSpecExporter(applicationContext)
+                .export(new File(outputDirectory, API_DOCS_DIRECTORY), true);
+
+        List<SwaggerResource> resources = new ArrayList<>();
+        for (String groupName : groupNames) {
+            SwaggerResource swaggerResource = new SwaggerResource();
+            swaggerResource.setName(groupName);
+            swaggerResource.setUrl(resourceUrl(groupName));
+            swaggerResource.setSwaggerVersion("2.0");
+            resources.add(swaggerResource);
+        }
+        Collections.sort(resources);
+        writeJson(new File(outputDirectory, RESOURCES_INDEX), resources);
+        writeJson(new File(outputDirectory, SwaggerResourcesFilter.UI_CONFIGURATION_PATH.substring(1)),
+                applicationContext.getBean(UiConfiguration.class));
+        writeJson(new File(outputDirectory, SwaggerResourcesFilter.SECURITY_CONFIGURATION_PATH.substring(1)),
+                securityConfiguration());
+
+        copyUiResources(outputDirectory);
+        return groupNames;
+    }
+
+    /**
+     * 分组api-docs在 swagger-resources 中的地址，相对于导出目录的根。
+     * springfox-swagger-ui 将不以 http 开头的地址直接拼接在 swagger-ui.html 所在目录（不含末尾的 /）之后，
+     * 以 / 开头的地址因此始终指向导出目录下的文件，导出目录部署在CDN的任意子路径下都可以访问；去掉开头的 / 反而会与目录名连在一起
+     *
+     * @param groupName 分组名称
+     * @return 地址
+     * @throws UnsupportedEncodingException 不支持UTF-8
+     */
+    static String resourceUrl(String groupName) throws UnsupportedEncodingException {
+        return "/" + API_DOCS_DIRECTORY + "/"
+                + UriUtils.encodePathSegment(SwaggerSpecExporter.fileName(groupName), "UTF-8")
+                + SwaggerSpecExporter.SPEC_SUFFIX;
+    }
+
+    private SecurityConfiguration securityConfiguration() {
+        Map<String, SecurityConfiguration> configurations =
+                applicationContext.getBeansOfType(SecurityConfiguration.class);
+        return configurations.isEmpty()
+                ? SecurityConfigurationBuilder.builder().build() : configurations.values().iterator().next();
+    }
+
+    private void writeJson(File file, Object value) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        objectMapper.writeValue(file, value);
+    }
+
+    /**
+     * 从classpath复制springfox-swagger-ui的页面与webjars资源，保持与运行时相同的相对路径
+     */
+    private void copyUiResources(File outputDirectory) throws IOException {
+        PathMatchingResourcePatternResolver resolver =
+                new PathMatchingResourcePatternResolver(applicationContext.getClassLoader());
+        List<Resource> resources = new ArrayList<>();
+        for (String pattern : UI_RESOURCES) {
+            resources.addAll(Arrays.asList(resolver.getResources("classpath*:" + UI_RESOURCES_LOCATION + pattern)));
+        }
+        for (Resource resource : resources) {
+            String url = resource.getURL().toString();
+            if (url.endsWith("/") || !resource.isReadable()) {
+                continue;
+            }
+            Path target = outputDirectory.toPath()
+                    .resolve(url.substring(url.lastIndexOf(UI_RESOURCES_LOCATION) + UI_RESOURCES_LOCATION.length()));
+            Files.createDirectories(target.getParent());
+            try (InputStream in = resource.getInputStream()) {
+                Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * 启动应用并导出静态文档目录
+     *
+     * @param args 第一个参数为应用主类，第二个参数为输出目录，其余参数传递给应用
+     * @throws Exception 启动或导出失败
+     */
+    public static void main(String[] args) throws Exception {
+        try (ConfigurableApplicationContext context = SwaggerSpecExporter.run("SwaggerBundleExporter", args)) {
+            new SwaggerBundleExporter(context).export(new File(args[1]));
+        }
+    }
+}
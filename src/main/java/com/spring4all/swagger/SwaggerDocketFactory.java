@@ -0,0 +1,425 @@
+package com.spring4all.swagger;
+
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import springfox.documentation.builders.*;
+import springfox.documentation.schema.ModelRef;
+import springfox.documentation.service.*;
+import springfox.documentation.spi.DocumentationType;
+import springfox.documentation.spi.service.contexts.SecurityContext;
+import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.swagger.web.ApiKeyVehicle;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * 根据 SwaggerProperties 创建 Docket，作为 {@link SwaggerDocketRegistrar} 注册的 Docket bean 的工厂。
+ * 每个分组的 Docket 在容器实例化对应的bean时才创建；配置了 scanThreads 时，首个分组被实例化时并行创建所有启用的分组
+ */
+public class SwaggerDocketFactory {
+
+    private final SwaggerProperties swaggerProperties;
+    private final SwaggerDocumentationMetrics documentationMetrics;
+    private final Environment environment;
+
+    /**
+     * 全局鉴权对象与鉴权策略，只创建一次并在所有未单独配置鉴权的分组之间共享
+     */
+    private final List<SecurityScheme> globalSecuritySchemes;
+    private final SecurityContext globalSecurityContext;
+
+    /**
+     * 并行创建、尚未被容器取走的分组Docket
+     */
+    private Map<String, Docket> prebuiltDockets;
+
+    public SwaggerDocketFactory(SwaggerProperties swaggerProperties,
+                                SwaggerDocumentationMetrics documentationMetrics,
+                                Environment environment) {
+        this.swaggerProperties = swaggerProperties;
+        this.documentationMetrics = documentationMetrics;
+        this.environment = environment;
+        List<SwaggerProperties.Authorization> globalAuthorization =
+                Collections.singletonList(swaggerProperties.getAuthorization());
+        this.globalSecuritySchemes = securitySchemes(globalAuthorization);
+        this.globalSecurityContext = securityContext(globalAuthorization);
+        for (Map.Entry<String, SwaggerProperties.DocketInfo> entry : swaggerProperties.getDocket().entrySet()) {
+            if (!isGroupEnabled(entry.getValue(), environment)) {
+                documentationMetrics.recordDisabledGroup(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * 未配置分组时创建默认分组的Docket
+     *
+     * @return 默认分组Docket
+     */
+    public Docket createDefaultDocket() {
+        long start = System.nanoTime();
+        ApiInfo apiInfo = new ApiInfoBuilder()
+                .title(swaggerProperties.getTitle())
+                .description(swaggerProperties.getDescription())
+                .version(swaggerProperties.getVersion())
+                .license(swaggerProperties.getLicense())
+                .licenseUrl(swaggerProperties.getLicenseUrl())
+                .contact(new Contact(swaggerProperties.getContact().getName(),
+                        swaggerProperties.getContact().getUrl(),
+                        swaggerProperties.getContact().getEmail()))
+                .termsOfServiceUrl(swaggerProperties.getTermsOfServiceUrl())
+                .build();
+
+        // base-path处理
+        // 当没有配置任何path的时候，解析/**
+        if (swaggerProperties.getBasePath().isEmpty()) {
+            swaggerProperties.getBasePath().add("/**");
+        }
+
+        Docket docketForBuilder = new Docket(DocumentationType.SWAGGER_2)
+                .host(swaggerProperties.getHost())
+                .apiInfo(apiInfo)
+                .securityContexts(Collections.singletonList(globalSecurityContext))
+                .securitySchemes(globalSecuritySchemes)
+                .globalOperationParameters(buildGlobalOperationParametersFromSwaggerProperties(
+                        swaggerProperties.getGlobalOperationParameters()));
+
+        // 全局响应消息
+        if (!swaggerProperties.getApplyDefaultResponseMessages()) {
+            buildGlobalResponseMessage(swaggerProperties, docketForBuilder);
+        }
+
+        Docket docket = docketForBuilder.select()
+                .apis(RequestHandlerSelectors.basePackage(swaggerProperties.getBasePackage()))
+                // exclude-path处理
+                .paths(SwaggerPathSelectors.paths(swaggerProperties.getBasePath(), swaggerProperties.getExcludePath()))
+                .build();
+
+        /* ignoredParameterTypes **/
+        Class<?>[] array = new Class[swaggerProperties.getIgnoredParameterTypes().size()];
+        Class<?>[] ignoredParameterTypes = swaggerProperties.getIgnoredParameterTypes().toArray(array);
+        docket.ignoredParameterTypes(ignoredParameterTypes);
+        documentationMetrics.recordDocketBuild(Docket.DEFAULT_GROUP_NAME, System.nanoTime() - start);
+        return docket;
+    }
+
+    /**
+     * 创建分组的Docket
+     *
+     * @param groupName 分组名称
+     * @return 分组Docket
+     */
+    public synchronized Docket createGroupDocket(String groupName) {
+        if (swaggerProperties.getScanThreads() <= 1) {
+            return buildGroupDocket(groupName);
+        }
+        if (prebuiltDockets == null) {
+            List<String> groupNames = new ArrayList<>();
+            for (Map.Entry<String, SwaggerProperties.DocketInfo> entry : swaggerProperties.getDocket().entrySet()) {
+                if (isGroupEnabled(entry.getValue(), environment)) {
+                    groupNames.add(entry.getKey());
+                }
+            }
+            List<Docket> dockets = buildGroupDockets(groupNames);
+            prebuiltDockets = new HashMap<>();
+            for (int i = 0; i < groupNames.size(); i++) {
+                prebuiltDockets.put(groupNames.get(i), dockets.get(i));
+            }
+        }
+        Docket docket = prebuiltDockets.remove(groupName);
+        return docket != null ? docket : buildGroupDocket(groupName);
+    }
+
+    /**
+     * 所有分组都未启用时创建关闭的 Docket：没有任何 Docket 时springfox会创建扫描所有接口的默认 Docket
+     *
+     * @return 关闭的Docket
+     */
+    public Docket createDisabledDocket() {
+        return new Docket(DocumentationType.SWAGGER_2).enable(false);
+    }
+
+    /**
+     * 分组是否启用：enabled 为 true，且未配置 profiles 或当前激活的 profile 与其中之一匹配（支持 !prod 形式）
+     *
+     * @param docketInfo  分组配置
+     * @param environment 当前环境
+     * @return 是否启用
+     */
+    public static boolean isGroupEnabled(SwaggerProperties.DocketInfo docketInfo, Environment environment) {
+        if (!docketInfo.getEnabled()) {
+            return false;
+        }
+        List<String> profiles = docketInfo.getProfiles();
+        return profiles.isEmpty() || environment.acceptsProfiles(profiles.toArray(new String[0]));
+    }
+
+    /**
+     * 创建分组Docket，配置了 scanThreads 时并行创建，返回结果与 groupNames 顺序一致
+     *
+     * @param groupNames 分组名称
+     * @return 分组Docket
+     */
+    private List<Docket> buildGroupDockets(List<String> groupNames) {
+        int threads = Math.min(swaggerProperties.getScanThreads(), groupNames.size());
+        List<Docket> dockets = new ArrayList<>(groupNames.size());
+        if (threads <= 1) {
+            for (String groupName : groupNames) {
+                dockets.add(buildGroupDocket(groupName));
+            }
+            return dockets;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("swagger-docket-"));
+        try {
+            List<Future<Docket>> futures = new ArrayList<>(groupNames.size());
+            for (String groupName : groupNames) {
+                futures.add(executor.submit(() -> buildGroupDocket(groupName)));
+            }
+            for (Future<Docket> future : futures) {
+                dockets.add(future.get());
+            }
+            return dockets;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while creating swagger dockets", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to create swagger docket", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 创建单个分组的Docket
+     *
+     * @param groupName 分组名称
+     * @return 分组Docket
+     */
+    private Docket buildGroupDocket(String groupName) {
+        long start = System.nanoTime();
+        SwaggerProperties.DocketInfo docketInfo = swaggerProperties.getDocket().get(groupName);
+        if (docketInfo == null) {
+            throw new IllegalStateException("Swagger group " + groupName
+                    + " is configured in the environment but missing from the SwaggerProperties bean");
+        }
+
+        ApiInfo apiInfo = new ApiInfoBuilder()
+                .title(docketInfo.getTitle().isEmpty() ? swaggerProperties.getTitle() : docketInfo.getTitle())
+                .description(docketInfo.getDescription().isEmpty() ? swaggerProperties.getDescription() : docketInfo.getDescription())
+                .version(docketInfo.getVersion().isEmpty() ? swaggerProperties.getVersion() : docketInfo.getVersion())
+                .license(docketInfo.getLicense().isEmpty() ? swaggerProperties.getLicense() : docketInfo.getLicense())
+                .licenseUrl(docketInfo.getLicenseUrl().isEmpty() ? swaggerProperties.getLicenseUrl() : docketInfo.getLicenseUrl())
+                .contact(
+                        new Contact(
+                                docketInfo.getContact().getName().isEmpty() ? swaggerProperties.getContact().getName() : docketInfo.getContact().getName(),
+                                docketInfo.getContact().getUrl().isEmpty() ? swaggerProperties.getContact().getUrl() : docketInfo.getContact().getUrl(),
+                                docketInfo.getContact().getEmail().isEmpty() ? swaggerProperties.getContact().getEmail() : docketInfo.getContact().getEmail()
+                        )
+                )
+                .termsOfServiceUrl(docketInfo.getTermsOfServiceUrl().isEmpty() ? swaggerProperties.getTermsOfServiceUrl() : docketInfo.getTermsOfServiceUrl())
+                .build();
+
+        // base-path处理
+        // 当没有配置任何path的时候，解析/**
+        if (docketInfo.getBasePath().isEmpty()) {
+            docketInfo.getBasePath().add("/**");
+        }
+
+        Docket docketForBuilder = new Docket(DocumentationType.SWAGGER_2)
+                .host(swaggerProperties.getHost())
+                .apiInfo(apiInfo)
+                .globalOperationParameters(assemblyGlobalOperationParameters(swaggerProperties.getGlobalOperationParameters(),
+                        docketInfo.getGlobalOperationParameters()));
+
+        // 分组配置了鉴权策略时使用分组的配置，否则使用全局鉴权策略
+        if (docketInfo.getAuthorizations().isEmpty()) {
+            docketForBuilder.securityContexts(Collections.singletonList(globalSecurityContext))
+                    .securitySchemes(globalSecuritySchemes);
+        } else {
+            docketForBuilder.securityContexts(Collections.singletonList(securityContext(docketInfo.getAuthorizations())))
+                    .securitySchemes(securitySchemes(docketInfo.getAuthorizations()));
+        }
+
+        // 全局响应消息
+        if (!swaggerProperties.getApplyDefaultResponseMessages()) {
+            buildGlobalResponseMessage(swaggerProperties, docketForBuilder);
+        }
+
+        Docket docket = docketForBuilder.groupName(groupName)
+                .select()
+                .apis(RequestHandlerSelectors.basePackage(docketInfo.getBasePackage()))
+                // exclude-path处理
+                .paths(SwaggerPathSelectors.paths(docketInfo.getBasePath(), docketInfo.getExcludePath()))
+                .build();
+
+        /* ignoredParameterTypes **/
+        Class<?>[] array = new Class[docketInfo.getIgnoredParameterTypes().size()];
+        Class<?>[] ignoredParameterTypes = docketInfo.getIgnoredParameterTypes().toArray(array);
+        docket.ignoredParameterTypes(ignoredParameterTypes);
+        documentationMetrics.recordDocketBuild(groupName, System.nanoTime() - start);
+        return docket;
+    }
+
+    /**
+     * 配置鉴权对象，type 为 BasicAuth 时使用 BasicAuth，为 None 时不配置，否则使用基于 Header 的 ApiKey
+     *
+     * @param authorizations 鉴权配置
+     * @return 鉴权对象
+     */
+    private static List<SecurityScheme> securitySchemes(List<SwaggerProperties.Authorization> authorizations) {
+        List<SecurityScheme> securitySchemes = new ArrayList<>();
+        for (SwaggerProperties.Authorization authorization : authorizations) {
+            if ("BasicAuth".equalsIgnoreCase(authorization.getType())) {
+                securitySchemes.add(new BasicAuth(authorization.getName()));
+            } else if (!"None".equalsIgnoreCase(authorization.getType())) {
+                securitySchemes.add(new ApiKey(authorization.getName(), authorization.getKeyName(),
+                        ApiKeyVehicle.HEADER.getValue()));
+            }
+        }
+        return securitySchemes;
+    }
+
+    /**
+     * 配置鉴权策略的开关，每个鉴权配置通过各自的正则表达式匹配路径；默认 ^.*$ 匹配所有URL
+     *
+     * @param authorizations 鉴权配置
+     * @return 所有鉴权配置组成的 SecurityContext
+     */
+    private static SecurityContext securityContext(List<SwaggerProperties.Authorization> authorizations) {
+        List<SwaggerSecurityContext.Rule> rules = new ArrayList<>();
+        for (SwaggerProperties.Authorization authorization : authorizations) {
+            rules.add(new SwaggerSecurityContext.Rule(authorization.getAuthRegex(), securityReferences(authorization)));
+        }
+        return new SwaggerSecurityContext(rules);
+    }
+
+    /**
+     * 配置鉴权策略；其中返回的 SecurityReference 中，reference 即为ApiKey对象里面的name，保持一致才能开启鉴权
+     *
+     * @param authorization 鉴权配置
+     * @return SecurityReference
+     */
+    private static List<SecurityReference> securityReferences(SwaggerProperties.Authorization authorization) {
+        AuthorizationScope authorizationScope = new AuthorizationScope("global", "accessEverything");
+        AuthorizationScope[] authorizationScopes = new AuthorizationScope[1];
+        authorizationScopes[0] = authorizationScope;
+        return Collections.singletonList(SecurityReference.builder()
+                .reference(authorization.getName())
+                .scopes(authorizationScopes).build());
+    }
+
+    private List<Parameter> buildGlobalOperationParametersFromSwaggerProperties(
+            List<SwaggerProperties.GlobalOperationParameter> globalOperationParameters) {
+        List<Parameter> parameters = newArrayList();
+
+        if (Objects.isNull(globalOperationParameters)) {
+            return parameters;
+        }
+        for (SwaggerProperties.GlobalOperationParameter globalOperationParameter : globalOperationParameters) {
+            parameters.add(new ParameterBuilder()
+                    .name(globalOperationParameter.getName())
+                    .description(globalOperationParameter.getDescription())
+                    .modelRef(new ModelRef(globalOperationParameter.getModelRef()))
+                    .parameterType(globalOperationParameter.getParameterType())
+                    .required(Boolean.parseBoolean(globalOperationParameter.getRequired()))
+                    .build());
+        }
+        return parameters;
+    }
+
+    /**
+     * 局部参数按照name覆盖局部参数
+     *
+     * @param globalOperationParameters
+     * @param docketOperationParameters
+     * @return
+     */
+    private List<Parameter> assemblyGlobalOperationParameters(
+            List<SwaggerProperties.GlobalOperationParameter> globalOperationParameters,
+            List<SwaggerProperties.GlobalOperationParameter> docketOperationParameters) {
+
+        if (Objects.isNull(docketOperationParameters) || docketOperationParameters.isEmpty()) {
+            return buildGlobalOperationParametersFromSwaggerProperties(globalOperationParameters);
+        }
+
+        Set<String> docketNames = docketOperationParameters.stream()
+                .map(SwaggerProperties.GlobalOperationParameter::getName)
+                .collect(Collectors.toSet());
+
+        List<SwaggerProperties.GlobalOperationParameter> resultOperationParameters = newArrayList();
+
+        if (Objects.nonNull(globalOperationParameters)) {
+            for (SwaggerProperties.GlobalOperationParameter parameter : globalOperationParameters) {
+                if (!docketNames.contains(parameter.getName())) {
+                    resultOperationParameters.add(parameter);
+                }
+            }
+        }
+
+        resultOperationParameters.addAll(docketOperationParameters);
+        return buildGlobalOperationParametersFromSwaggerProperties(resultOperationParameters);
+    }
+
+    /**
+     * 设置全局响应消息
+     *
+     * @param swaggerProperties swaggerProperties 支持 POST,GET,PUT,PATCH,DELETE,HEAD,OPTIONS,TRACE
+     * @param docketForBuilder  swagger docket builder
+     */
+    private void buildGlobalResponseMessage(SwaggerProperties swaggerProperties, Docket docketForBuilder) {
+
+        SwaggerProperties.GlobalResponseMessage globalResponseMessages =
+                swaggerProperties.getGlobalResponseMessage();
+
+        /* POST,GET,PUT,PATCH,DELETE,HEAD,OPTIONS,TRACE 响应消息体 **/
+        List<ResponseMessage> postResponseMessages = getResponseMessageList(globalResponseMessages.getPost());
+        List<ResponseMessage> getResponseMessages = getResponseMessageList(globalResponseMessages.getGet());
+        List<ResponseMessage> putResponseMessages = getResponseMessageList(globalResponseMessages.getPut());
+        List<ResponseMessage> patchResponseMessages = getResponseMessageList(globalResponseMessages.getPatch());
+        List<ResponseMessage> deleteResponseMessages = getResponseMessageList(globalResponseMessages.getDelete());
+        List<ResponseMessage> headResponseMessages = getResponseMessageList(globalResponseMessages.getHead());
+        List<ResponseMessage> optionsResponseMessages = getResponseMessageList(globalResponseMessages.getOptions());
+        List<ResponseMessage> trackResponseMessages = getResponseMessageList(globalResponseMessages.getTrace());
+
+        docketForBuilder.useDefaultResponseMessages(swaggerProperties.getApplyDefaultResponseMessages())
+                .globalResponseMessage(RequestMethod.POST, postResponseMessages)
+                .globalResponseMessage(RequestMethod.GET, getResponseMessages)
+                .globalResponseMessage(RequestMethod.PUT, putResponseMessages)
+                .globalResponseMessage(RequestMethod.PATCH, patchResponseMessages)
+                .globalResponseMessage(RequestMethod.DELETE, deleteResponseMessages)
+                .globalResponseMessage(RequestMethod.HEAD, headResponseMessages)
+                .globalResponseMessage(RequestMethod.OPTIONS, optionsResponseMessages)
+                .globalResponseMessage(RequestMethod.TRACE, trackResponseMessages);
+    }
+
+    /**
+     * 获取返回消息体列表
+     *
+     * @param globalResponseMessageBodyList 全局Code消息返回集合
+     * @return
+     */
+    private List<ResponseMessage> getResponseMessageList
+    (List<SwaggerProperties.GlobalResponseMessageBody> globalResponseMessageBodyList) {
+        List<ResponseMessage> responseMessages = new ArrayList<>();
+        for (SwaggerProperties.GlobalResponseMessageBody globalResponseMessageBody : globalResponseMessageBodyList) {
+            ResponseMessageBuilder responseMessageBuilder = new ResponseMessageBuilder();
+            responseMessageBuilder.code(globalResponseMessageBody.getCode()).message(globalResponseMessageBody.getMessage());
+
+            if (!StringUtils.isEmpty(globalResponseMessageBody.getModelRef())) {
+                responseMessageBuilder.responseModel(new ModelRef(globalResponseMessageBody.getModelRef()));
+            }
+            responseMessages.add(responseMessageBuilder.build());
+        }
+
+        return responseMessages;
+    }
+}
@@ -0,0 +1,130 @@
+package com.spring4all.swagger;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.bind.PropertiesConfigurationFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.validation.BindException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 在解析配置类时为每个启用的分组注册一个 Docket 的bean定义，由 {@link SwaggerDocketFactory} 在实例化bean时创建 Docket。
+ * bean定义在容器刷新前即可见，不显式设置lazy-init，可以参与全局的延迟初始化等基于bean定义的处理。
+ * 注册哪些分组由这里从 Environment 绑定的配置决定；SwaggerDocketFactory 同样由这里注册，
+ * 在创建第一个 Docket 时才实例化，各分组的配置读取自容器中的 SwaggerProperties bean
+ */
+public class SwaggerDocketRegistrar implements ImportBeanDefinitionRegistrar, EnvironmentAware {
+
+    static final String DOCKET_FACTORY_BEAN_NAME = "swaggerDocketFactory";
+
+    /**
+     * 标记由本类注册的 Docket bean定义
+     */
+    private static final String DOCKET_ATTRIBUTE = SwaggerDocketRegistrar.class.getName() + ".docket";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+        SwaggerProperties swaggerProperties = bindSwaggerProperties();
+        if (Boolean.FALSE.equals(swaggerProperties.getEnabled())) {
+            return;
+        }
+        registerDocketFactory(registry);
+
+        // 没有分组
+        if (swaggerProperties.getDocket().isEmpty()) {
+            register(registry, "defaultDocket", "createDefaultDocket", null);
+            return;
+        }
+
+        // 分组创建，跳过未启用的分组
+        boolean registered = false;
+        for (Map.Entry<String, SwaggerProperties.DocketInfo> entry : swaggerProperties.getDocket().entrySet()) {
+            if (SwaggerDocketFactory.isGroupEnabled(entry.getValue(), environment)) {
+                register(registry, entry.getKey(), "createGroupDocket", entry.getKey());
+                registered = true;
+            }
+        }
+        if (!registered) {
+            register(registry, "disabledDocket", "createDisabledDocket", null);
+        }
+    }
+
+    private void register(BeanDefinitionRegistry registry, String beanName, String factoryMethod, String groupName) {
+        if (registry.containsBeanDefinition(beanName)) {
+            return;
+        }
+        BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition()
+                .setFactoryMethodOnBean(factoryMethod, DOCKET_FACTORY_BEAN_NAME);
+        if (groupName != null) {
+            builder.addConstructorArgValue(groupName);
+        }
+        AbstractBeanDefinition beanDefinition = builder.getBeanDefinition();
+        beanDefinition.setAttribute(DOCKET_ATTRIBUTE, Boolean.TRUE);
+        registry.registerBeanDefinition(beanName, beanDefinition);
+    }
+
+    /**
+     * 构造参数（SwaggerProperties、SwaggerDocumentationMetrics、Environment）都由容器注入
+     */
+    private void registerDocketFactory(BeanDefinitionRegistry registry) {
+        if (registry.containsBeanDefinition(DOCKET_FACTORY_BEAN_NAME)) {
+            return;
+        }
+        AbstractBeanDefinition beanDefinition = BeanDefinitionBuilder.genericBeanDefinition(SwaggerDocketFactory.class)
+                .setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR)
+                .getBeanDefinition();
+        registry.registerBeanDefinition(DOCKET_FACTORY_BEAN_NAME, beanDefinition);
+    }
+
+    /**
+     * 由本类注册的 Docket 的bean名称，按注册顺序排列
+     *
+     * @param beanFactory bean工厂
+     * @return bean名称
+     */
+    static List<String> docketBeanNames(ConfigurableListableBeanFactory beanFactory) {
+        List<String> beanNames = new ArrayList<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+            if (Boolean.TRUE.equals(beanDefinition.getAttribute(DOCKET_ATTRIBUTE))) {
+                beanNames.add(beanName);
+            }
+        }
+        return beanNames;
+    }
+
+    /**
+     * 此时 SwaggerProperties 的bean尚未创建，直接从 Environment 绑定一份配置用于决定需要注册的分组
+     */
+    private SwaggerProperties bindSwaggerProperties() {
+        SwaggerProperties swaggerProperties = new SwaggerProperties();
+        PropertiesConfigurationFactory<SwaggerProperties> factory = new PropertiesConfigurationFactory<>(swaggerProperties);
+        factory.setPropertySources(((ConfigurableEnvironment) environment).getPropertySources());
+        factory.setConversionService(new DefaultConversionService());
+        factory.setTargetName("swagger");
+        try {
+            factory.bindPropertiesToTarget();
+        } catch (BindException e) {
+            throw new IllegalStateException("Unable to bind swagger properties", e);
+        }
+        return swaggerProperties;
+    }
+}
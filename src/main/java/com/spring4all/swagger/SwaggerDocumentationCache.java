@@ -0,0 +1,61 @@
+package com.spring4all.swagger;
+
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 替代springfox的 {@link DocumentationCache}，由 {@link SwaggerSpringfoxBeanReplacer} 替换。
+ * springfox 使用普通的 LinkedHashMap，扫描线程写入时请求线程可能读到不完整的状态；
+ * 这里写入时复制一份新的map并整体发布，读取不需要加锁，并支持按分组移除
+ */
+public class SwaggerDocumentationCache extends DocumentationCache {
+
+    private volatile Map<String, Documentation> documentationLookup = Collections.emptyMap();
+
+    @Override
+    public synchronized void addDocumentation(Documentation documentation) {
+        Map<String, Documentation> lookup = new LinkedHashMap<>(documentationLookup);
+        lookup.put(documentation.getGroupName(), documentation);
+        documentationLookup = Collections.unmodifiableMap(lookup);
+    }
+
+    @Override
+    public Documentation documentationByGroup(String groupName) {
+        return documentationLookup.get(groupName);
+    }
+
+    /**
+     * 所有分组的文档，按写入顺序排列
+     *
+     * @return 只读的快照，之后的写入不会影响已经返回的结果
+     */
+    @Override
+    public Map<String, Documentation> all() {
+        return documentationLookup;
+    }
+
+    /**
+     * 移除分组的文档，其他分组不受影响
+     *
+     * @param groupName 分组名称
+     * @return 移除的文档，分组不存在时返回null
+     */
+    public synchronized Documentation remove(String groupName) {
+        if (!documentationLookup.containsKey(groupName)) {
+            return null;
+        }
+        Map<String, Documentation> lookup = new LinkedHashMap<>(documentationLookup);
+        Documentation removed = lookup.remove(groupName);
+        documentationLookup = Collections.unmodifiableMap(lookup);
+        return removed;
+    }
+
+    @Override
+    public synchronized void clear() {
+        documentationLookup = Collections.emptyMap();
+    }
+}
@@ -0,0 +1,305 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.classmate.TypeResolver;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+import springfox.documentation.schema.AlternateTypeRuleConvention;
+import springfox.documentation.spi.service.RequestHandlerCombiner;
+import springfox.documentation.spi.service.RequestHandlerProvider;
+import springfox.documentation.spi.service.contexts.Defaults;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.json.JacksonModuleRegistrar;
+import springfox.documentation.spring.web.plugins.DefaultConfiguration;
+import springfox.documentation.spring.web.plugins.DocumentationPluginsManager;
+import springfox.documentation.spring.web.scanners.ApiDocumentationScanner;
+import springfox.documentation.swagger.web.SecurityConfiguration;
+import springfox.documentation.swagger.web.SecurityConfigurationBuilder;
+import springfox.documentation.swagger.web.UiConfiguration;
+import springfox.documentation.swagger2.mappers.ServiceModelToSwagger2Mapper;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletContext;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 文档扫描相关配置，由 {@link SwaggerDocumentationScanner} 接管springfox的文档扫描
+ */
+@Configuration
+@ConditionalOnProperty(name = "swagger.enabled", matchIfMissing = true)
+public class SwaggerDocumentationConfiguration {
+
+    static final String API_DOCS_PATH_PROPERTY = "springfox.documentation.swagger.v2.path";
+    static final String DEFAULT_API_DOCS_PATH = "/v2/api-docs";
+    static final String DEFAULT_COMBINER_CLASS =
+            "springfox.documentation.spring.web.plugins.DefaultRequestHandlerCombiner";
+
+    /**
+     * 关闭springfox自带的启动扫描，统一由 SwaggerDocumentationScanner 处理
+     */
+    @Bean
+    public static BeanFactoryPostProcessor springfoxAutoStartupDisabler(ConfigurableEnvironment environment) {
+        return beanFactory -> environment.getPropertySources().addFirst(new MapPropertySource("swaggerDocumentation",
+                Collections.<String, Object>singletonMap("springfox.documentation.auto-startup", "false")));
+    }
+
+    /**
+     * 替换springfox中非线程安全的bean，使并行与按需扫描的结果与扫描顺序无关
+     */
+    @Bean
+    public static SwaggerSpringfoxBeanReplacer swaggerSpringfoxBeanReplacer() {
+        return new SwaggerSpringfoxBeanReplacer();
+    }
+
+    /**
+     * 统计每个分组的模型解析耗时
+     */
+    @Bean
+    public static SwaggerModelResolutionTimer swaggerModelResolutionTimer() {
+        return new SwaggerModelResolutionTimer();
+    }
+
+    /**
+     * 在分组之间共享解析后的模型
+     */
+    @Bean
+    @ConditionalOnProperty(name = "swagger.share-models", matchIfMissing = true)
+    public static SwaggerSharedModelProvider swaggerSharedModelProvider() {
+        return new SwaggerSharedModelProvider();
+    }
+
+    @Bean
+    public SwaggerDocumentationScanner swaggerDocumentationScanner(
+            SwaggerProperties swaggerProperties,
+            DocumentationPluginsManager documentationPluginsManager,
+            List<RequestHandlerProvider> handlerProviders,
+            DocumentationCache documentationCache,
+            ApiDocumentationScanner apiDocumentationScanner,
+            Defaults defaults,
+            TypeResolver typeResolver,
+            ServletContext servletContext,
+            ObjectProvider<List<AlternateTypeRuleConvention>> typeConventions,
+            ObjectProvider<RequestHandlerCombiner> combiner,
+            SwaggerDocumentationMetrics documentationMetrics,
+            ObjectProvider<SwaggerSharedModelProvider> sharedModelProvider,
+            ObjectProvider<SwaggerDocumentationFingerprints> documentationFingerprints) {
+        List<AlternateTypeRuleConvention> conventions = typeConventions.getIfAvailable();
+        RequestHandlerCombiner requestHandlerCombiner = combiner.getIfAvailable();
+        return new SwaggerDocumentationScanner(swaggerProperties,
+                documentationPluginsManager,
+                handlerProviders,
+                documentationCache,
+                apiDocumentationScanner,
+                new DefaultConfiguration(defaults, typeResolver, servletContext),
+                conventions == null ? Collections.<AlternateTypeRuleConvention>emptyList() : conventions,
+                requestHandlerCombiner == null ? defaultRequestHandlerCombiner() : requestHandlerCombiner,
+                documentationMetrics,
+                sharedModelProvider.getIfAvailable(),
+                documentationFingerprints.getIfAvailable());
+    }
+
+    @Bean
+    @Primary
+    public SwaggerGroupResourcesProvider swaggerGroupResourcesProvider(SwaggerProperties swaggerProperties,
+                                                                       SwaggerDocumentationScanner scanner,
+                                                                       SwaggerPrebuiltApiDocs prebuiltApiDocs,
+                                                                       DocumentationCache documentationCache,
+                                                                       SwaggerApiDocsViews apiDocsViews,
+                                                                       Environment environment) {
+        return new SwaggerGroupResourcesProvider(swaggerProperties, scanner, prebuiltApiDocs, documentationCache,
+                apiDocsViews, apiDocsPath(environment));
+    }
+
+    @Bean
+    public SwaggerPrebuiltApiDocs swaggerPrebuiltApiDocs(SwaggerProperties swaggerProperties,
+                                                         ResourceLoader resourceLoader,
+                                                         SwaggerApiDocsStorage apiDocsStorage) {
+        return new SwaggerPrebuiltApiDocs(resourceLoader, swaggerProperties.getPrebuiltLocation(), apiDocsStorage);
+    }
+
+    @Bean
+    public SwaggerApiDocsStorage swaggerApiDocsStorage(SwaggerProperties swaggerProperties) {
+        return new SwaggerApiDocsStorage(swaggerProperties.getCache().getStorage());
+    }
+
+    @Bean
+    public SwaggerApiDocsWriter swaggerApiDocsWriter(ServiceModelToSwagger2Mapper mapper,
+                                                     List<JacksonModuleRegistrar> moduleRegistrars,
+                                                     Environment environment) {
+        return new SwaggerApiDocsWriter(mapper, moduleRegistrars,
+                environment.getProperty("springfox.documentation.swagger.v2.host", "DEFAULT"));
+    }
+
+    @Bean
+    public SwaggerApiDocsCache swaggerApiDocsCache(SwaggerProperties swaggerProperties,
+                                                   DocumentationCache documentationCache,
+                                                   SwaggerApiDocsWriter apiDocsWriter,
+                                                   SwaggerApiDocsStorage apiDocsStorage,
+                                                   SwaggerDocumentationMetrics documentationMetrics) {
+        return new SwaggerApiDocsCache(documentationCache, apiDocsWriter, apiDocsStorage, documentationMetrics,
+                swaggerProperties.getCache().getMaxVariants());
+    }
+
+    @Bean
+    public SwaggerApiDocsViews swaggerApiDocsViews(SwaggerProperties swaggerProperties,
+                                                   SwaggerApiDocsWriter apiDocsWriter) {
+        return new SwaggerApiDocsViews(apiDocsWriter, swaggerProperties.getCache().getMaxViews());
+    }
+
+    @Bean
+    public SwaggerDocumentationRefresher swaggerDocumentationRefresher(SwaggerDocumentationScanner scanner,
+                                                                       SwaggerApiDocsCache apiDocsCache,
+                                                                       SwaggerDocumentationSnapshot documentationSnapshot) {
+        return new SwaggerDocumentationRefresher(scanner, apiDocsCache, documentationSnapshot);
+    }
+
+    @Bean
+    public SwaggerDocumentationEvictor swaggerDocumentationEvictor(SwaggerProperties swaggerProperties,
+                                                                   SwaggerDocumentationScanner scanner,
+                                                                   SwaggerApiDocsCache apiDocsCache) {
+        return new SwaggerDocumentationEvictor(swaggerProperties.getCache(), scanner, apiDocsCache);
+    }
+
+    @Bean
+    public SwaggerDocumentationSnapshot swaggerDocumentationSnapshot(
+            SwaggerProperties swaggerProperties,
+            SwaggerDocumentationScanner scanner,
+            SwaggerApiDocsCache apiDocsCache,
+            ObjectProvider<SwaggerDocumentationFingerprints> documentationFingerprints,
+            ServletContext servletContext,
+            Environment environment) {
+        return new SwaggerDocumentationSnapshot(swaggerProperties, scanner, apiDocsCache,
+                documentationFingerprints.getIfAvailable(), basePath(servletContext),
+                environment.getProperty("springfox.documentation.swagger.v2.host"));
+    }
+
+    @Bean
+    public FilterRegistrationBean swaggerDocumentationFilter(SwaggerProperties swaggerProperties,
+                                                             SwaggerDocumentationScanner scanner,
+                                                             SwaggerApiDocsCache apiDocsCache,
+                                                             SwaggerApiDocsWriter apiDocsWriter,
+                                                             DocumentationCache documentationCache,
+                                                             SwaggerPrebuiltApiDocs prebuiltApiDocs,
+                                                             SwaggerDocumentationEvictor documentationEvictor,
+                                                             SwaggerDocumentationSnapshot documentationSnapshot,
+                                                             SwaggerApiDocsViews apiDocsViews,
+                                                             Environment environment) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(new SwaggerDocumentationFilter(
+                swaggerProperties, scanner, apiDocsCache, apiDocsWriter, documentationCache, prebuiltApiDocs,
+                documentationEvictor, documentationSnapshot, apiDocsViews, apiDocsPath(environment)));
+        registration.setName("swaggerDocumentationFilter");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return registration;
+    }
+
+    /**
+     * 注册为bean，以便在Docket创建完成后生成 swagger-resources
+     */
+    @Bean
+    public SwaggerResourcesFilter swaggerResources(SwaggerProperties swaggerProperties,
+                                                   SwaggerGroupResourcesProvider resourcesProvider,
+                                                   UiConfiguration uiConfiguration,
+                                                   ObjectProvider<SecurityConfiguration> securityConfiguration) {
+        SecurityConfiguration configuration = securityConfiguration.getIfAvailable();
+        return new SwaggerResourcesFilter(resourcesProvider, uiConfiguration,
+                configuration == null ? SecurityConfigurationBuilder.builder().build() : configuration,
+                swaggerProperties.getUiConfig().getResourcesMaxAge());
+    }
+
+    @Bean
+    public FilterRegistrationBean swaggerResourcesFilter(SwaggerResourcesFilter swaggerResources) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(swaggerResources);
+        registration.setName("swaggerResourcesFilter");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "swagger.fingerprint.enabled", matchIfMissing = true)
+    public SwaggerDocumentationFingerprints swaggerDocumentationFingerprints(SwaggerProperties swaggerProperties,
+                                                                             SwaggerApiDocsCache apiDocsCache,
+                                                                             SwaggerPrebuiltApiDocs prebuiltApiDocs,
+                                                                             ServletContext servletContext) {
+        return new SwaggerDocumentationFingerprints(swaggerProperties, apiDocsCache, prebuiltApiDocs,
+                basePath(servletContext));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "swagger.fingerprint.enabled", matchIfMissing = true)
+    public FilterRegistrationBean swaggerFingerprintFilter(SwaggerDocumentationFingerprints documentationFingerprints,
+                                                           Environment environment) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(
+                new SwaggerFingerprintFilter(documentationFingerprints, apiDocsPath(environment)));
+        registration.setName("swaggerFingerprintFilter");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return registration;
+    }
+
+    /**
+     * 限制文档请求的并发，排在其他文档过滤器之前
+     */
+    @Bean
+    @ConditionalOnProperty(name = "swagger.throttle.enabled")
+    public FilterRegistrationBean swaggerThrottlingFilter(SwaggerProperties swaggerProperties,
+                                                          Environment environment) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(
+                new SwaggerThrottlingFilter(swaggerProperties.getThrottle(), apiDocsPath(environment)));
+        registration.setName("swaggerThrottlingFilter");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setAsyncSupported(true);
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 100);
+        return registration;
+    }
+
+    /**
+     * 存在 Micrometer 时将文档生成的统计信息注册为指标
+     */
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class SwaggerMetricsConfiguration {
+
+        @Bean
+        public SwaggerMetricsBinder swaggerMetricsBinder(SwaggerDocumentationMetrics documentationMetrics,
+                                                         SwaggerDocumentationScanner scanner) {
+            return new SwaggerMetricsBinder(documentationMetrics, scanner);
+        }
+    }
+
+    /**
+     * 导出与请求无关的api-docs时使用的basePath
+     */
+    static String basePath(ServletContext servletContext) {
+        String contextPath = servletContext.getContextPath();
+        return StringUtils.isEmpty(contextPath) ? "/" : contextPath;
+    }
+
+    /**
+     * springfox 默认的 RequestHandlerCombiner 不是public的，与 DocumentationPluginsBootstrapper 一致在未配置时使用它
+     */
+    static RequestHandlerCombiner defaultRequestHandlerCombiner() {
+        try {
+            return (RequestHandlerCombiner) BeanUtils.instantiateClass(ClassUtils.forName(DEFAULT_COMBINER_CLASS,
+                    SwaggerDocumentationConfiguration.class.getClassLoader()));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String apiDocsPath(Environment environment) {
+        return environment.getProperty(API_DOCS_PATH_PROPERTY, DEFAULT_API_DOCS_PATH);
+    }
+}
@@ -0,0 +1,144 @@
+package com.spring4all.swagger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限制分组文档占用的内存：按 swagger.cache 的配置移除最久未访问或长时间未访问的分组，
+ * 被移除的分组在下一次访问时由 {@link SwaggerDocumentationScanner} 重新扫描
+ */
+@Slf4j
+public class SwaggerDocumentationEvictor implements DisposableBean {
+
+    private final SwaggerProperties.Cache cacheProperties;
+    private final SwaggerDocumentationScanner scanner;
+    private final SwaggerApiDocsCache apiDocsCache;
+
+    /**
+     * 已扫描分组最近一次被访问的时间，分组被移除后同时删除
+     */
+    private final Map<String, Long> lastAccess = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService expiryExecutor;
+
+    public SwaggerDocumentationEvictor(SwaggerProperties.Cache cacheProperties,
+                                       SwaggerDocumentationScanner scanner,
+                                       SwaggerApiDocsCache apiDocsCache) {
+        this.cacheProperties = cacheProperties;
+        this.scanner = scanner;
+        this.apiDocsCache = apiDocsCache;
+
+        long expireAfterAccess = cacheProperties.getExpireAfterAccess();
+        if (expireAfterAccess > 0) {
+            long period = Math.max(1, Math.min(expireAfterAccess / 2, 60));
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("swagger-cache-");
+            threadFactory.setDaemon(true);
+            expiryExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            expiryExecutor.scheduleWithFixedDelay(this::evictExpired, period, period, TimeUnit.SECONDS);
+        } else {
+            expiryExecutor = null;
+        }
+    }
+
+    /**
+     * 记录分组被访问，只记录访问时间，不检查大小限制。
+     * 只记录已扫描的分组，请求中不存在或尚未扫描的分组名称不会被记录
+     *
+     * @param groupName 分组名称
+     */
+    public void accessed(String groupName) {
+        if (scanner.getScannedGroups().contains(groupName)) {
+            lastAccess.put(groupName, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 分组被扫描或缓存了新的api-docs后调用，超出 maxEntries 或 maxBytes 时移除最久未访问的其他分组
+     *
+     * @param groupName 分组名称
+     */
+    public void cached(String groupName) {
+        int maxEntries = cacheProperties.getMaxEntries();
+        long maxBytes = cacheProperties.getMaxBytes();
+        if (maxEntries <= 0 && maxBytes <= 0) {
+            return;
+        }
+
+        synchronized (this) {
+            List<String> groups = new ArrayList<>(scanner.getScannedGroups());
+            // 其他途径（如刷新）移除的分组
+            lastAccess.keySet().retainAll(groups);
+            // 启动时扫描但从未访问的分组最先被移除
+            groups.sort(Comparator.comparingLong(group -> lastAccess.getOrDefault(group, 0L)));
+            int entries = groups.size();
+            long bytes = 0;
+            for (String group : groups) {
+                bytes += apiDocsCache.retainedBytes(group);
+            }
+            for (String group : groups) {
+                if ((maxEntries <= 0 || entries <= maxEntries) && (maxBytes <= 0 || bytes <= maxBytes)) {
+                    break;
+                }
+                if (group.equals(groupName)) {
+                    continue;
+                }
+                bytes -= apiDocsCache.retainedBytes(group);
+                entries--;
+                evict(group, "size limit");
+            }
+        }
+    }
+
+    /**
+     * 已记录访问时间的分组
+     */
+    Set<String> accessedGroups() {
+        return Collections.unmodifiableSet(lastAccess.keySet());
+    }
+
+    private void evictExpired() {
+        try {
+            long now = System.currentTimeMillis();
+            long expireMillis = TimeUnit.SECONDS.toMillis(cacheProperties.getExpireAfterAccess());
+            synchronized (this) {
+                List<String> groups = new ArrayList<>(scanner.getScannedGroups());
+                lastAccess.keySet().retainAll(groups);
+                for (String group : groups) {
+                    // 启动时扫描但从未访问的分组从第一次检查时开始计时
+                    long accessed = lastAccess.computeIfAbsent(group, key -> now);
+                    if (now - accessed > expireMillis) {
+                        evict(group, "expired");
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Unable to evict expired swagger documentation", e);
+        }
+    }
+
+    private void evict(String groupName, String reason) {
+        scanner.evict(groupName);
+        apiDocsCache.evict(groupName);
+        lastAccess.remove(groupName);
+        log.debug("Evicted swagger documentation of group {} ({})", groupName, reason);
+    }
+
+    @Override
+    public void destroy() {
+        if (expiryExecutor != null) {
+            expiryExecutor.shutdownNow();
+        }
+    }
+}
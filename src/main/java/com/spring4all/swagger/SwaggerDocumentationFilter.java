@@ -0,0 +1,252 @@
+package com.spring4all.swagger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 文档请求过滤器：
+ * lazy 模式下在首次访问 api-docs 时扫描对应分组；开启缓存或 prebuilt 模式时直接输出缓存的api-docs，并支持ETag与gzip；
+ * 开启 streaming 的分组直接流式输出api-docs；请求带有过滤或分页参数时只输出选中的接口，见 {@link SwaggerApiDocsQuery}。
+ * 从快照恢复且尚未扫描的分组不扫描，由缓存使用快照中的模板生成api-docs
+ */
+@Slf4j
+public class SwaggerDocumentationFilter extends OncePerRequestFilter {
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private final SwaggerProperties swaggerProperties;
+    private final SwaggerDocumentationScanner scanner;
+    private final SwaggerApiDocsCache apiDocsCache;
+    private final SwaggerApiDocsWriter apiDocsWriter;
+    private final DocumentationCache documentationCache;
+    private final SwaggerPrebuiltApiDocs prebuiltApiDocs;
+    private final SwaggerDocumentationEvictor documentationEvictor;
+    private final SwaggerDocumentationSnapshot documentationSnapshot;
+    private final SwaggerApiDocsViews apiDocsViews;
+    private final String apiDocsPath;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public SwaggerDocumentationFilter(SwaggerProperties swaggerProperties,
+                                      SwaggerDocumentationScanner scanner,
+                                      SwaggerApiDocsCache apiDocsCache,
+                                      SwaggerApiDocsWriter apiDocsWriter,
+                                      DocumentationCache documentationCache,
+                                      SwaggerPrebuiltApiDocs prebuiltApiDocs,
+                                      SwaggerDocumentationEvictor documentationEvictor,
+                                      SwaggerDocumentationSnapshot documentationSnapshot,
+                                      SwaggerApiDocsViews apiDocsViews,
+                                      String apiDocsPath) {
+        this.swaggerProperties = swaggerProperties;
+        this.scanner = scanner;
+        this.apiDocsCache = apiDocsCache;
+        this.apiDocsWriter = apiDocsWriter;
+        this.documentationCache = documentationCache;
+        this.prebuiltApiDocs = prebuiltApiDocs;
+        this.documentationEvictor = documentationEvictor;
+        this.documentationSnapshot = documentationSnapshot;
+        this.apiDocsViews = apiDocsViews;
+        this.apiDocsPath = apiDocsPath;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !apiDocsPath.equals(urlPathHelper.getPathWithinApplication(request));
+    }
+
+    /**
+     * 限流排队的请求通过异步分派重新进入，见 {@link SwaggerThrottlingFilter}
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String groupName = request.getParameter("group");
+        if (groupName == null) {
+            groupName = Docket.DEFAULT_GROUP_NAME;
+        }
+        SwaggerApiDocsQuery query = "GET".equals(request.getMethod()) ? SwaggerApiDocsQuery.from(request) : null;
+        boolean prebuilt = swaggerProperties.getScanMode() == SwaggerProperties.ScanMode.PREBUILT;
+        if (prebuilt) {
+            handle(groupName, true, query, request, response, filterChain);
+            return;
+        }
+        boolean scanned = scanner.getScannedGroups().contains(groupName);
+        long retainedBytes = apiDocsCache.retainedBytes(groupName);
+        boolean fromSnapshot = "GET".equals(request.getMethod()) && cached(groupName)
+                && apiDocsCache.hasSnapshot(groupName) && !scanned;
+        if (!fromSnapshot) {
+            if (!scanner.awaitBackgroundScan(swaggerProperties.getAsync().getWaitTimeout())) {
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(swaggerProperties.getAsync().getRetryAfter()));
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                return;
+            }
+            // lazy 模式下首次访问，或分组文档被移出内存后重新扫描
+            scanner.ensureScanned(groupName);
+        }
+        try {
+            handle(groupName, false, query, request, response, filterChain);
+        } finally {
+            documentationEvictor.accessed(groupName);
+            // 只在分组被扫描或缓存了新的api-docs时检查大小限制
+            if ((!scanned && scanner.getScannedGroups().contains(groupName))
+                    || apiDocsCache.retainedBytes(groupName) != retainedBytes) {
+                documentationEvictor.cached(groupName);
+            }
+            if (!fromSnapshot) {
+                documentationSnapshot.saveIfAbsent(groupName);
+            }
+        }
+    }
+
+    private void handle(String groupName, boolean prebuilt, SwaggerApiDocsQuery query, HttpServletRequest request,
+                        HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (query != null) {
+            handleQuery(groupName, prebuilt, query, request, response);
+            return;
+        }
+        if (!prebuilt && streaming(groupName) && "GET".equals(request.getMethod())) {
+            streamApiDocs(groupName, request, response);
+            return;
+        }
+        if ((!prebuilt && !swaggerProperties.getCache().getEnabled()) || !"GET".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        SwaggerApiDocs apiDocs = prebuilt ? prebuiltApiDocs.get(groupName) : apiDocsCache.get(groupName, request);
+        if (apiDocs == null) {
+            log.warn("Unable to find specification for group {}", groupName);
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        writeApiDocs(request, response, apiDocs);
+    }
+
+    /**
+     * 输出过滤后的api-docs，未缓存序列化结果的分组（关闭缓存或开启 streaming）直接基于 Documentation 过滤
+     */
+    private void handleQuery(String groupName, boolean prebuilt, SwaggerApiDocsQuery query,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        SwaggerApiDocsViews.View view = null;
+        if (prebuilt) {
+            SwaggerApiDocs apiDocs = prebuiltApiDocs.get(groupName);
+            view = apiDocs == null ? null : apiDocsViews.query(groupName, apiDocs, query);
+        } else if (cached(groupName)) {
+            SwaggerApiDocs apiDocs = apiDocsCache.get(groupName, request);
+            view = apiDocs == null ? null : apiDocsViews.query(groupName, apiDocs, query);
+        } else {
+            Documentation documentation = documentationCache.documentationByGroup(groupName);
+            if (documentation != null) {
+                view = apiDocsViews.query(documentation, apiDocsWriter.target(documentation, request), query);
+            }
+        }
+        if (view == null) {
+            log.warn("Unable to find specification for group {}", groupName);
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        writeView(request, response, view);
+    }
+
+    private void writeView(HttpServletRequest request, HttpServletResponse response,
+                           SwaggerApiDocsViews.View view) throws IOException {
+        response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(view.getTotal()));
+        writeApiDocs(request, response, view.getApiDocs());
+    }
+
+    /**
+     * 分组的api-docs是否由缓存输出
+     */
+    private boolean cached(String groupName) {
+        return swaggerProperties.getCache().getEnabled() && !streaming(groupName);
+    }
+
+    private boolean streaming(String groupName) {
+        SwaggerProperties.DocketInfo docketInfo = swaggerProperties.getDocket().get(groupName);
+        return docketInfo != null && Boolean.TRUE.equals(docketInfo.getStreaming());
+    }
+
+    /**
+     * 流式输出api-docs，不缓存序列化结果，也不计算ETag与Content-Length
+     */
+    private void streamApiDocs(String groupName, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        Documentation documentation = documentationCache.documentationByGroup(groupName);
+        if (documentation == null) {
+            log.warn("Unable to find specification for group {}", groupName);
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        SwaggerApiDocsWriter.Target target = apiDocsWriter.target(documentation, request);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (SwaggerApiDocs.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            GZIPOutputStream gzip = new GZIPOutputStream(response.getOutputStream(), STREAM_BUFFER_SIZE);
+            apiDocsWriter.write(documentation, target, gzip);
+            gzip.finish();
+        } else {
+            apiDocsWriter.write(documentation, target, response.getOutputStream());
+        }
+    }
+
+    private void writeApiDocs(HttpServletRequest request, HttpServletResponse response,
+                              SwaggerApiDocs apiDocs) throws IOException {
+        boolean gzip = SwaggerApiDocs.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = apiDocs.getEtag(gzip);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (SwaggerApiDocs.etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        ByteBuffer body = gzip ? apiDocs.getGzipContent() : apiDocs.getContent();
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(body.remaining());
+
+        // 内存映射存储且容器支持sendfile时（如Tomcat NIO连接器），由容器直接发送文件
+        File file = gzip ? apiDocs.getGzipContentFile() : apiDocs.getContentFile();
+        if (file != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getAbsolutePath());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, 0L);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, (long) body.remaining());
+            return;
+        }
+        apiDocs.writeTo(response.getOutputStream(), gzip);
+    }
+}
@@ -0,0 +1,264 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import lombok.Data;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分组文档的指纹：分组文档生成时（扫描完成、从快照恢复）对与请求无关的api-docs（与构建时生成的文档内容一致）计算md5，
+ * 并按 path 与 definition 记录各自的指纹，保留最近若干个版本用于计算结构差异。
+ * 分组文档被移出内存后保留最后的指纹；prebuilt 模式下在第一次查询时计算预生成文档的指纹。查询不会触发扫描。
+ */
+public class SwaggerDocumentationFingerprints {
+
+    private final SwaggerProperties swaggerProperties;
+    private final SwaggerApiDocsCache apiDocsCache;
+    private final SwaggerPrebuiltApiDocs prebuiltApiDocs;
+    private final String basePath;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, GroupVersions> groups = new ConcurrentHashMap<>();
+
+    public SwaggerDocumentationFingerprints(SwaggerProperties swaggerProperties,
+                                            SwaggerApiDocsCache apiDocsCache,
+                                            SwaggerPrebuiltApiDocs prebuiltApiDocs,
+                                            String basePath) {
+        this.swaggerProperties = swaggerProperties;
+        this.apiDocsCache = apiDocsCache;
+        this.prebuiltApiDocs = prebuiltApiDocs;
+        this.basePath = basePath;
+    }
+
+    /**
+     * 分组文档生成后记录当前版本，由 {@link SwaggerDocumentationScanner} 与 {@link SwaggerDocumentationSnapshot} 调用
+     *
+     * @param groupName 分组名称
+     */
+    public void record(String groupName) {
+        SwaggerApiDocs apiDocs = apiDocsCache.export(groupName, basePath);
+        if (apiDocs == null) {
+            return;
+        }
+        Version version = version(apiDocs);
+        GroupVersions versions = versions(groupName);
+        synchronized (versions) {
+            versions.add(version);
+        }
+    }
+
+    /**
+     * 所有生成过文档的分组的指纹
+     *
+     * @return 分组名称与指纹，按分组名称排序
+     */
+    public Map<String, String> fingerprints() {
+        if (swaggerProperties.getScanMode() == SwaggerProperties.ScanMode.PREBUILT) {
+            for (String groupName : prebuiltApiDocs.getGroupNames()) {
+                recordPrebuilt(groupName);
+            }
+        }
+        Map<String, String> fingerprints = new TreeMap<>();
+        for (Map.Entry<String, GroupVersions> entry : groups.entrySet()) {
+            Version latest = entry.getValue().latest();
+            if (latest != null) {
+                fingerprints.put(entry.getKey(), latest.hash);
+            }
+        }
+        return fingerprints;
+    }
+
+    /**
+     * 分组当前版本与指定历史版本之间的结构差异
+     *
+     * @param groupName 分组名称
+     * @param since     历史版本的指纹
+     * @return 分组没有生成过文档，或历史版本已不在保留范围内时返回null
+     */
+    public Diff diff(String groupName, String since) {
+        if (swaggerProperties.getScanMode() == SwaggerProperties.ScanMode.PREBUILT) {
+            recordPrebuilt(groupName);
+        }
+        GroupVersions versions = groups.get(groupName);
+        Version current = versions == null ? null : versions.latest();
+        if (current == null) {
+            return null;
+        }
+        Version previous = versions.find(since);
+        if (previous == null) {
+            return null;
+        }
+        Diff diff = new Diff(groupName, previous.hash, current.hash);
+        compare(previous.paths, current.paths, diff.getPaths());
+        compare(previous.definitions, current.definitions, diff.getDefinitions());
+        return diff;
+    }
+
+    private static void compare(Map<String, String> previous, Map<String, String> current, Changes changes) {
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            String previousHash = previous.get(entry.getKey());
+            if (previousHash == null) {
+                changes.getAdded().add(entry.getKey());
+            } else if (!previousHash.equals(entry.getValue())) {
+                changes.getChanged().add(entry.getKey());
+            }
+        }
+        for (String key : previous.keySet()) {
+            if (!current.containsKey(key)) {
+                changes.getRemoved().add(key);
+            }
+        }
+    }
+
+    /**
+     * 预生成文档的版本，只在文档变化时计算
+     */
+    private void recordPrebuilt(String groupName) {
+        SwaggerApiDocs apiDocs = prebuiltApiDocs.get(groupName);
+        if (apiDocs == null) {
+            return;
+        }
+        GroupVersions versions = versions(groupName);
+        synchronized (versions) {
+            if (versions.prebuilt != apiDocs) {
+                versions.add(version(apiDocs));
+                versions.prebuilt = apiDocs;
+            }
+        }
+    }
+
+    private GroupVersions versions(String groupName) {
+        return groups.computeIfAbsent(groupName,
+                key -> new GroupVersions(swaggerProperties.getFingerprint().getHistory()));
+    }
+
+    private Version version(SwaggerApiDocs apiDocs) {
+        try (InputStream in = new ByteBufferBackedInputStream(apiDocs.getContent())) {
+            JsonNode root = objectMapper.readTree(in);
+            // ETag 即内容的md5，去掉引号后作为整体指纹
+            String etag = apiDocs.getEtag();
+            return new Version(etag.substring(1, etag.length() - 1),
+                    hashes(root.get("paths")), hashes(root.get("definitions")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, String> hashes(JsonNode node) {
+        Map<String, String> hashes = new TreeMap<>();
+        if (node == null) {
+            return hashes;
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            hashes.put(field.getKey(),
+                    DigestUtils.md5DigestAsHex(field.getValue().toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        return hashes;
+    }
+
+    /**
+     * 单个版本：整体指纹，以及每个 path 与 definition 的指纹
+     */
+    private static class Version {
+
+        private final String hash;
+        private final Map<String, String> paths;
+        private final Map<String, String> definitions;
+
+        Version(String hash, Map<String, String> paths, Map<String, String> definitions) {
+            this.hash = hash;
+            this.paths = paths;
+            this.definitions = definitions;
+        }
+    }
+
+    /**
+     * 分组最近的若干个版本
+     */
+    private static class GroupVersions {
+
+        private final int history;
+        private final LinkedList<Version> versions = new LinkedList<>();
+
+        /**
+         * prebuilt 模式下最新版本对应的预生成文档，变化时重新计算
+         */
+        private SwaggerApiDocs prebuilt;
+
+        GroupVersions(int history) {
+            this.history = Math.max(1, history);
+        }
+
+        void add(Version version) {
+            if (!versions.isEmpty() && versions.getLast().hash.equals(version.hash)) {
+                return;
+            }
+            versions.addLast(version);
+            while (versions.size() > history) {
+                versions.removeFirst();
+            }
+        }
+
+        synchronized Version latest() {
+            return versions.isEmpty() ? null : versions.getLast();
+        }
+
+        synchronized Version find(String hash) {
+            for (Version version : versions) {
+                if (version.hash.equals(hash)) {
+                    return version;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 两个版本之间的结构差异
+     */
+    @Data
+    public static class Diff {
+
+        /**
+         * 分组名称
+         */
+        private final String group;
+
+        /**
+         * 历史版本的指纹
+         */
+        private final String from;
+
+        /**
+         * 当前版本的指纹
+         */
+        private final String to;
+
+        private final Changes paths = new Changes();
+
+        private final Changes definitions = new Changes();
+    }
+
+    /**
+     * 新增、删除与修改的 path 或 definition
+     */
+    @Data
+    public static class Changes {
+
+        private final List<String> added = new ArrayList<>();
+
+        private final List<String> removed = new ArrayList<>();
+
+        private final List<String> changed = new ArrayList<>();
+    }
+}
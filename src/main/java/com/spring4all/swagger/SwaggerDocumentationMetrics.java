@@ -0,0 +1,241 @@
+package com.spring4all.swagger;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import springfox.documentation.service.ApiDescription;
+import springfox.documentation.service.ApiListing;
+import springfox.documentation.service.Documentation;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文档生成过程的统计信息：按分组记录 Docket 创建耗时、扫描耗时、模型解析耗时、接口与模型数量，以及缓存的文档大小
+ */
+@Slf4j
+public class SwaggerDocumentationMetrics {
+
+    private final Map<String, GroupMetrics> groups = new ConcurrentHashMap<>();
+
+    /**
+     * 因未启用或profile不匹配而跳过的分组
+     */
+    private final Set<String> disabledGroups = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 记录 Docket 创建耗时
+     *
+     * @param groupName 分组名称
+     * @param nanos     耗时，纳秒
+     */
+    public void recordDocketBuild(String groupName, long nanos) {
+        group(groupName).docketBuildNanos = nanos;
+    }
+
+    /**
+     * 记录未启用的分组，这些分组不会创建 Docket，也不会被扫描
+     *
+     * @param groupName 分组名称
+     */
+    public void recordDisabledGroup(String groupName) {
+        disabledGroups.add(groupName);
+    }
+
+    /**
+     * 未启用的分组
+     *
+     * @return 分组名称，按名称排序
+     */
+    public Set<String> getDisabledGroups() {
+        return Collections.unmodifiableSet(new TreeSet<>(disabledGroups));
+    }
+
+    /**
+     * 累加模型解析耗时，同一分组的多次解析会累加
+     *
+     * @param groupName 分组名称
+     * @param nanos     耗时，纳秒
+     */
+    public void addModelResolution(String groupName, long nanos) {
+        group(groupName).modelResolutionNanos.addAndGet(nanos);
+    }
+
+    /**
+     * 开始扫描分组，重置上一次扫描的模型解析耗时
+     *
+     * @param groupName 分组名称
+     */
+    public void scanStarted(String groupName) {
+        group(groupName).modelResolutionNanos.set(0);
+    }
+
+    /**
+     * 记录分组扫描结果
+     *
+     * @param groupName     分组名称
+     * @param nanos         扫描耗时，纳秒
+     * @param handlers      参与扫描的请求处理器数量
+     * @param documentation 扫描结果，扫描失败时为null
+     */
+    public void recordScan(String groupName, long nanos, int handlers, Documentation documentation) {
+        GroupMetrics metrics = group(groupName);
+        metrics.scanNanos = nanos;
+        metrics.handlers = handlers;
+        if (documentation == null) {
+            return;
+        }
+        int operations = 0;
+        Set<String> models = new HashSet<>();
+        for (ApiListing apiListing : documentation.getApiListings().values()) {
+            for (ApiDescription apiDescription : apiListing.getApis()) {
+                operations += apiDescription.getOperations().size();
+            }
+            models.addAll(apiListing.getModels().keySet());
+        }
+        metrics.operations = operations;
+        metrics.models = models.size();
+    }
+
+    /**
+     * 记录分组缓存的文档大小
+     *
+     * @param groupName 分组名称
+     * @param bytes     缓存占用的字节数
+     */
+    public void recordCachedBytes(String groupName, long bytes) {
+        group(groupName).cachedBytes = bytes;
+    }
+
+    /**
+     * 分组的统计信息
+     *
+     * @param groupName 分组名称
+     * @return 未记录过的分组返回空的统计信息
+     */
+    public Snapshot snapshot(String groupName) {
+        GroupMetrics metrics = groups.get(groupName);
+        return metrics == null ? new Snapshot(groupName) : metrics.snapshot(groupName);
+    }
+
+    /**
+     * 所有分组的统计信息
+     *
+     * @return 统计信息，按分组名称排序
+     */
+    public List<Snapshot> snapshots() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (String groupName : new TreeSet<>(groups.keySet())) {
+            snapshots.add(snapshot(groupName));
+        }
+        return snapshots;
+    }
+
+    /**
+     * 输出单个分组的统计信息
+     *
+     * @param groupName 分组名称
+     */
+    public void logGroup(String groupName) {
+        log.info("Swagger documentation {}", snapshot(groupName));
+    }
+
+    /**
+     * 输出所有分组的统计汇总
+     */
+    public void logSummary() {
+        List<Snapshot> snapshots = snapshots();
+        long total = 0;
+        StringBuilder summary = new StringBuilder();
+        for (Snapshot snapshot : snapshots) {
+            total += snapshot.getDocketBuildMillis() + snapshot.getScanMillis();
+            summary.append(System.lineSeparator()).append("  ").append(snapshot);
+        }
+        log.info("Swagger documentation built for {} group(s) in {} ms:{}", snapshots.size(), total, summary);
+        if (!disabledGroups.isEmpty()) {
+            log.info("Swagger documentation skipped {} disabled group(s): {}", disabledGroups.size(), getDisabledGroups());
+        }
+    }
+
+    private GroupMetrics group(String groupName) {
+        return groups.computeIfAbsent(groupName, key -> new GroupMetrics());
+    }
+
+    private static class GroupMetrics {
+
+        private volatile long docketBuildNanos;
+        private volatile long scanNanos;
+        private final AtomicLong modelResolutionNanos = new AtomicLong();
+        private volatile int handlers;
+        private volatile int operations;
+        private volatile int models;
+        private volatile long cachedBytes;
+
+        Snapshot snapshot(String groupName) {
+            Snapshot snapshot = new Snapshot(groupName);
+            snapshot.setDocketBuildMillis(TimeUnit.NANOSECONDS.toMillis(docketBuildNanos));
+            snapshot.setScanMillis(TimeUnit.NANOSECONDS.toMillis(scanNanos));
+            snapshot.setModelResolutionMillis(TimeUnit.NANOSECONDS.toMillis(modelResolutionNanos.get()));
+            snapshot.setHandlers(handlers);
+            snapshot.setOperations(operations);
+            snapshot.setModels(models);
+            snapshot.setCachedBytes(cachedBytes);
+            return snapshot;
+        }
+    }
+
+    /**
+     * 单个分组的统计信息
+     */
+    @Data
+    public static class Snapshot {
+
+        /**
+         * 分组名称
+         */
+        private final String groupName;
+
+        /**
+         * Docket 创建耗时
+         */
+        private long docketBuildMillis;
+
+        /**
+         * 扫描耗时，包含模型解析耗时
+         */
+        private long scanMillis;
+
+        /**
+         * 模型解析耗时
+         */
+        private long modelResolutionMillis;
+
+        /**
+         * 分组选中的请求处理器数量
+         */
+        private int handlers;
+
+        /**
+         * 接口数量
+         */
+        private int operations;
+
+        /**
+         * 模型数量
+         */
+        private int models;
+
+        /**
+         * 缓存的序列化文档大小，包括gzip压缩后的内容
+         */
+        private long cachedBytes;
+
+        @Override
+        public String toString() {
+            return String.format("group=%s, docket=%dms, scan=%dms, models=%dms, handlers=%d, operations=%d, models=%d, cached=%dB",
+                    groupName, docketBuildMillis, scanMillis, modelResolutionMillis, handlers, operations, models,
+                    cachedBytes);
+        }
+    }
+}
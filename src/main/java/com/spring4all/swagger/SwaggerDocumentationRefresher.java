@@ -0,0 +1,66 @@
+package com.spring4all.swagger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 增量刷新文档，用于运行时注册或移除了请求映射（如插件式模块热加载）的场景。
+ * 只重新扫描受影响的分组，替换其在 DocumentationCache 与 api-docs 缓存中的内容，其他分组的文档保持不变。
+ */
+@Slf4j
+public class SwaggerDocumentationRefresher {
+
+    private final SwaggerDocumentationScanner scanner;
+    private final SwaggerApiDocsCache apiDocsCache;
+    private final SwaggerDocumentationSnapshot documentationSnapshot;
+
+    public SwaggerDocumentationRefresher(SwaggerDocumentationScanner scanner,
+                                         SwaggerApiDocsCache apiDocsCache,
+                                         SwaggerDocumentationSnapshot documentationSnapshot) {
+        this.scanner = scanner;
+        this.apiDocsCache = apiDocsCache;
+        this.documentationSnapshot = documentationSnapshot;
+    }
+
+    /**
+     * 重新收集请求处理器，只重新扫描选中的请求处理器发生变化的分组
+     *
+     * @return 重新扫描的分组
+     */
+    public Set<String> refresh() {
+        return evict(scanner.refresh());
+    }
+
+    /**
+     * 重新扫描指定分组，适用于请求处理器不变但接口定义（如注解、模型）发生变化的场景
+     *
+     * @param groupNames 分组名称
+     * @return 重新扫描的分组
+     */
+    public Set<String> refreshGroups(String... groupNames) {
+        return refreshGroups(Arrays.asList(groupNames));
+    }
+
+    /**
+     * 重新扫描指定分组
+     *
+     * @param groupNames 分组名称
+     * @return 重新扫描的分组
+     */
+    public Set<String> refreshGroups(Collection<String> groupNames) {
+        return evict(scanner.refresh(groupNames));
+    }
+
+    private Set<String> evict(Set<String> refreshed) {
+        for (String groupName : refreshed) {
+            apiDocsCache.evict(groupName);
+            documentationSnapshot.invalidate(groupName);
+            documentationSnapshot.saveIfAbsent(groupName);
+        }
+        log.info("Refreshed swagger documentation for group(s) {}", refreshed);
+        return refreshed;
+    }
+}
@@ -0,0 +1,639 @@
+package com.spring4all.swagger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.DigestUtils;
+import springfox.documentation.RequestHandler;
+import springfox.documentation.schema.AlternateTypeRule;
+import springfox.documentation.schema.AlternateTypeRuleConvention;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spi.service.DocumentationPlugin;
+import springfox.documentation.spi.service.RequestHandlerCombiner;
+import springfox.documentation.spi.service.RequestHandlerProvider;
+import springfox.documentation.spi.service.contexts.DocumentationContext;
+import springfox.documentation.spi.service.contexts.Orderings;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.plugins.DefaultConfiguration;
+import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.DocumentationPluginsManager;
+import springfox.documentation.spring.web.scanners.ApiDocumentationScanner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 文档扫描器，替代springfox自带的 DocumentationPluginsBootstrapper。
+ * eager 模式下在启动时扫描所有分组；lazy 模式下由 {@link SwaggerDocumentationFilter} 在首次访问时按分组触发扫描；
+ * async 模式下在应用就绪后于后台线程扫描所有分组。
+ */
+@Slf4j
+public class SwaggerDocumentationScanner implements SmartLifecycle, ApplicationListener<ApplicationReadyEvent> {
+
+    private final SwaggerProperties swaggerProperties;
+    private final DocumentationPluginsManager documentationPluginsManager;
+    private final List<RequestHandlerProvider> handlerProviders;
+    private final DocumentationCache documentationCache;
+    private final ApiDocumentationScanner apiDocumentationScanner;
+    private final DefaultConfiguration defaultConfiguration;
+    private final List<AlternateTypeRuleConvention> typeConventions;
+    private final RequestHandlerCombiner combiner;
+    private final SwaggerDocumentationMetrics documentationMetrics;
+    private final SwaggerSharedModelProvider sharedModelProvider;
+    private final SwaggerDocumentationFingerprints documentationFingerprints;
+
+    /**
+     * 已经扫描完成的分组
+     */
+    private final Set<String> scannedGroups = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 已扫描分组选中的请求处理器签名，用于在刷新时判断分组是否受影响
+     */
+    private final Map<String, Set<String>> handlerSignatures = new ConcurrentHashMap<>();
+
+    /**
+     * 串行扫描时各分组第一次扫描前的 operationId 计数，分组被移除或刷新后重新扫描时从这里开始计数，
+     * 保证重新扫描得到相同的 operationId
+     */
+    private final Map<String, Map<String, Integer>> operationNameBases = new ConcurrentHashMap<>();
+
+    /**
+     * 正在扫描的分组，扫描完成后移除
+     */
+    private final Map<String, CompletableFuture<Void>> groupScans = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * async 模式下后台扫描的结果，扫描结束（包括失败）后完成
+     */
+    private volatile CompletableFuture<Void> backgroundScan = new CompletableFuture<>();
+
+    /**
+     * 请求处理器索引，每个上下文只构建一次，所有分组共享
+     */
+    private volatile SwaggerRequestHandlerIndex handlerIndex;
+
+    public SwaggerDocumentationScanner(SwaggerProperties swaggerProperties,
+                                       DocumentationPluginsManager documentationPluginsManager,
+                                       List<RequestHandlerProvider> handlerProviders,
+                                       DocumentationCache documentationCache,
+                                       ApiDocumentationScanner apiDocumentationScanner,
+                                       DefaultConfiguration defaultConfiguration,
+                                       List<AlternateTypeRuleConvention> typeConventions,
+                                       RequestHandlerCombiner combiner,
+                                       SwaggerDocumentationMetrics documentationMetrics,
+                                       SwaggerSharedModelProvider sharedModelProvider,
+                                       SwaggerDocumentationFingerprints documentationFingerprints) {
+        this.swaggerProperties = swaggerProperties;
+        this.documentationPluginsManager = documentationPluginsManager;
+        this.handlerProviders = handlerProviders;
+        this.documentationCache = documentationCache;
+        this.apiDocumentationScanner = apiDocumentationScanner;
+        this.defaultConfiguration = defaultConfiguration;
+        this.typeConventions = typeConventions;
+        this.combiner = combiner;
+        this.documentationMetrics = documentationMetrics;
+        this.sharedModelProvider = sharedModelProvider;
+        this.documentationFingerprints = documentationFingerprints;
+    }
+
+    /**
+     * 获取所有启用的分组名称，不会触发扫描
+     *
+     * @return 分组名称
+     */
+    public List<String> getGroupNames() {
+        List<String> groupNames = new ArrayList<>();
+        for (DocumentationPlugin plugin : enabledPlugins()) {
+            groupNames.add(plugin.getGroupName());
+        }
+        return groupNames;
+    }
+
+    /**
+     * 确保指定分组已经扫描，未扫描过的分组会在当前线程完成扫描。
+     * 同一分组的并发调用只有一个线程扫描，其他线程等待扫描完成；不同分组可以同时扫描
+     *
+     * @param groupName 分组名称
+     */
+    public void ensureScanned(String groupName) {
+        if (scannedGroups.contains(groupName)) {
+            return;
+        }
+        DocumentationPlugin plugin = null;
+        for (DocumentationPlugin candidate : enabledPlugins()) {
+            if (candidate.getGroupName().equals(groupName)) {
+                plugin = candidate;
+                break;
+            }
+        }
+        if (plugin == null) {
+            return;
+        }
+        CompletableFuture<Void> scan = new CompletableFuture<>();
+        CompletableFuture<Void> inFlight = groupScans.putIfAbsent(groupName, scan);
+        if (inFlight != null) {
+            join(groupName, inFlight);
+            return;
+        }
+        try {
+            scanGroup(plugin);
+            scan.complete(null);
+        } catch (RuntimeException | Error e) {
+            scan.completeExceptionally(e);
+            throw e;
+        } finally {
+            groupScans.remove(groupName, scan);
+        }
+    }
+
+    private void join(String groupName, CompletableFuture<Void> scan) {
+        try {
+            scan.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Unable to scan swagger documentation for group " + groupName,
+                    e.getCause());
+        }
+    }
+
+    private void scanGroup(DocumentationPlugin plugin) {
+        if (scannedGroups.contains(plugin.getGroupName())) {
+            return;
+        }
+        while (true) {
+            SwaggerRequestHandlerIndex index = handlerIndex();
+            Documentation documentation = scanDocumentation(plugin, index);
+            if (registerIfCurrent(plugin, index, documentation)) {
+                recordFingerprint(plugin.getGroupName(), documentation);
+                break;
+            }
+        }
+        documentationMetrics.logGroup(plugin.getGroupName());
+    }
+
+    /**
+     * 扫描期间请求处理器没有被刷新时注册扫描结果，否则需要使用新的请求处理器重新扫描
+     *
+     * @return 是否已经注册
+     */
+    private boolean registerIfCurrent(DocumentationPlugin plugin, SwaggerRequestHandlerIndex index,
+                                      Documentation documentation) {
+        synchronized (this) {
+            if (scannedGroups.contains(plugin.getGroupName())) {
+                return true;
+            }
+            if (index != handlerIndex) {
+                return false;
+            }
+            register(plugin, documentation);
+            return true;
+        }
+    }
+
+    /**
+     * 确保所有分组都已经扫描，配置了 scanThreads 时并行扫描，扫描结果按分组注册顺序写入缓存。
+     * 与 {@link #ensureScanned(String)} 共用每个分组的扫描状态：其他线程正在扫描的分组只等待其完成，不会重复扫描
+     */
+    public void ensureAllScanned() {
+        Map<DocumentationPlugin, CompletableFuture<Void>> owned = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Void>> inFlight = new LinkedHashMap<>();
+        for (DocumentationPlugin plugin : enabledPlugins()) {
+            String groupName = plugin.getGroupName();
+            if (scannedGroups.contains(groupName)) {
+                continue;
+            }
+            CompletableFuture<Void> scan = new CompletableFuture<>();
+            CompletableFuture<Void> existing = groupScans.putIfAbsent(groupName, scan);
+            if (existing == null) {
+                owned.put(plugin, scan);
+            } else {
+                inFlight.put(groupName, existing);
+            }
+        }
+
+        try {
+            scanAll(owned);
+        } finally {
+            for (Map.Entry<DocumentationPlugin, CompletableFuture<Void>> entry : owned.entrySet()) {
+                CompletableFuture<Void> scan = entry.getValue();
+                if (!scan.isDone()) {
+                    scan.completeExceptionally(new IllegalStateException("Swagger documentation scan was aborted"));
+                }
+                groupScans.remove(entry.getKey().getGroupName(), scan);
+            }
+        }
+        for (Map.Entry<String, CompletableFuture<Void>> entry : inFlight.entrySet()) {
+            join(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void scanAll(Map<DocumentationPlugin, CompletableFuture<Void>> owned) {
+        if (owned.isEmpty()) {
+            return;
+        }
+        int threads = Math.min(swaggerProperties.getScanThreads(), owned.size());
+        if (threads <= 1) {
+            for (Map.Entry<DocumentationPlugin, CompletableFuture<Void>> entry : owned.entrySet()) {
+                scanGroup(entry.getKey());
+                entry.getValue().complete(null);
+            }
+            return;
+        }
+
+        SwaggerRequestHandlerIndex index = handlerIndex();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("swagger-scan-"));
+        try {
+            Map<DocumentationPlugin, Future<Documentation>> futures = new LinkedHashMap<>();
+            for (DocumentationPlugin plugin : owned.keySet()) {
+                futures.put(plugin, executor.submit(() -> scanDocumentation(plugin, index)));
+            }
+            for (Map.Entry<DocumentationPlugin, Future<Documentation>> entry : futures.entrySet()) {
+                DocumentationPlugin plugin = entry.getKey();
+                Documentation documentation = entry.getValue().get();
+                if (registerIfCurrent(plugin, index, documentation)) {
+                    recordFingerprint(plugin.getGroupName(), documentation);
+                } else {
+                    scanGroup(plugin);
+                }
+                owned.get(plugin).complete(null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scanning swagger documentation", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to scan swagger documentation", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 已经扫描完成的分组
+     *
+     * @return 分组名称
+     */
+    public Set<String> getScannedGroups() {
+        return Collections.unmodifiableSet(scannedGroups);
+    }
+
+    /**
+     * 从 DocumentationCache 中移除分组的文档并清除分组的模型，下一次调用 {@link #ensureScanned(String)} 时重新扫描，
+     * 其他分组的文档保持不变
+     *
+     * @param groupName 分组名称
+     * @return 分组是否已经扫描过
+     */
+    public boolean evict(String groupName) {
+        synchronized (this) {
+            if (!scannedGroups.remove(groupName)) {
+                return false;
+            }
+            handlerSignatures.remove(groupName);
+            evictModels(groupName);
+            if (documentationCache instanceof SwaggerDocumentationCache) {
+                ((SwaggerDocumentationCache) documentationCache).remove(groupName);
+                return true;
+            }
+            // 自定义的 DocumentationCache 没有提供按分组移除的方法，保留其他分组后重建
+            Map<String, Documentation> remaining = new LinkedHashMap<>(documentationCache.all());
+            remaining.remove(groupName);
+            documentationCache.clear();
+            for (Documentation documentation : remaining.values()) {
+                documentationCache.addDocumentation(documentation);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 重新收集请求处理器，只重新扫描选中的请求处理器发生变化的分组，未受影响分组的文档保持不变。
+     * 尚未扫描的分组不会被扫描，会在首次访问时使用新的请求处理器。
+     *
+     * @return 重新扫描的分组
+     */
+    public Set<String> refresh() {
+        synchronized (this) {
+            SwaggerRequestHandlerIndex index = new SwaggerRequestHandlerIndex(requestHandlers());
+            handlerIndex = index;
+            Set<String> refreshed = new LinkedHashSet<>();
+            for (DocumentationPlugin plugin : enabledPlugins()) {
+                String groupName = plugin.getGroupName();
+                if (scannedGroups.contains(groupName)
+                        && !signatures(selectRequestHandlers(groupName, index)).equals(handlerSignatures.get(groupName))) {
+                    scan(plugin, index);
+                    refreshed.add(groupName);
+                }
+            }
+            return refreshed;
+        }
+    }
+
+    /**
+     * 重新收集请求处理器，并重新扫描指定分组，其他分组不受影响
+     *
+     * @param groupNames 分组名称
+     * @return 重新扫描的分组，不存在或未启用的分组会被忽略
+     */
+    public Set<String> refresh(Collection<String> groupNames) {
+        synchronized (this) {
+            SwaggerRequestHandlerIndex index = new SwaggerRequestHandlerIndex(requestHandlers());
+            handlerIndex = index;
+            Set<String> refreshed = new LinkedHashSet<>();
+            for (DocumentationPlugin plugin : enabledPlugins()) {
+                if (groupNames.contains(plugin.getGroupName())) {
+                    scan(plugin, index);
+                    refreshed.add(plugin.getGroupName());
+                }
+            }
+            return refreshed;
+        }
+    }
+
+    private void scan(DocumentationPlugin plugin, SwaggerRequestHandlerIndex index) {
+        // 重新扫描前清除旧的模型，否则分组作用域下已经不再使用的模型会一直保留
+        evictModels(plugin.getGroupName());
+        Documentation documentation = scanDocumentation(plugin, index);
+        register(plugin, documentation);
+        recordFingerprint(plugin.getGroupName(), documentation);
+    }
+
+    private void evictModels(String groupName) {
+        if (sharedModelProvider != null) {
+            sharedModelProvider.evict(groupName);
+        }
+    }
+
+    private Documentation scanDocumentation(DocumentationPlugin plugin, SwaggerRequestHandlerIndex index) {
+        String groupName = plugin.getGroupName();
+        documentationMetrics.scanStarted(groupName);
+        long start = System.nanoTime();
+        List<RequestHandler> requestHandlers = selectRequestHandlers(groupName, index);
+        DocumentationContext context = buildContext(plugin, requestHandlers);
+        Documentation documentation = null;
+        try {
+            documentation = scanOperations(groupName, () -> apiDocumentationScanner.scan(context));
+            handlerSignatures.put(groupName, signatures(requestHandlers));
+        } catch (Exception e) {
+            log.error(String.format("Unable to scan documentation context %s", context.getGroupName()), e);
+        }
+        documentationMetrics.recordScan(groupName, System.nanoTime() - start, requestHandlers.size(), documentation);
+        return documentation;
+    }
+
+    /**
+     * 并行扫描时每个分组独立计数 operationId；串行扫描与springfox一样使用全局计数，
+     * 并记录分组第一次扫描前的计数，重新扫描时从记录的计数开始
+     */
+    private Documentation scanOperations(String groupName, Supplier<Documentation> scan) {
+        if (swaggerProperties.getScanThreads() > 1) {
+            return SwaggerOperationNameGenerator.scoped(Collections.emptyMap(), scan);
+        }
+        Map<String, Integer> base = operationNameBases.get(groupName);
+        if (base != null) {
+            return SwaggerOperationNameGenerator.scoped(base, scan);
+        }
+        base = new HashMap<>();
+        Documentation documentation = SwaggerOperationNameGenerator.recorded(base, scan);
+        operationNameBases.put(groupName, base);
+        return documentation;
+    }
+
+    /**
+     * 注册扫描结果。扫描失败的分组不会被标记为已扫描，下一次访问时重新扫描；重新扫描失败时保留原来的文档
+     */
+    private void register(DocumentationPlugin plugin, Documentation documentation) {
+        if (documentation == null) {
+            return;
+        }
+        documentationCache.addDocumentation(documentation);
+        scannedGroups.add(plugin.getGroupName());
+    }
+
+    /**
+     * 扫描成功后记录分组文档的指纹
+     */
+    private void recordFingerprint(String groupName, Documentation documentation) {
+        if (documentation != null && documentationFingerprints != null) {
+            documentationFingerprints.record(groupName);
+        }
+    }
+
+    /**
+     * 分组上一次扫描时选中的请求处理器的指纹
+     *
+     * @param groupName 分组名称
+     * @return 分组未扫描时返回null
+     */
+    public String getHandlerFingerprint(String groupName) {
+        Set<String> signatures = handlerSignatures.get(groupName);
+        return signatures == null ? null : fingerprint(signatures);
+    }
+
+    /**
+     * 按当前的请求处理器计算分组选中的请求处理器的指纹，不会触发扫描
+     *
+     * @param groupName 分组名称
+     * @return 指纹
+     */
+    public String currentHandlerFingerprint(String groupName) {
+        return fingerprint(signatures(selectRequestHandlers(groupName, handlerIndex())));
+    }
+
+    private static String fingerprint(Set<String> signatures) {
+        List<String> sorted = new ArrayList<>(signatures);
+        Collections.sort(sorted);
+        return DigestUtils.md5DigestAsHex(String.join("\n", sorted).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 请求处理器的签名：所属类、方法名、路径规则与请求方法
+     */
+    private static Set<String> signatures(List<RequestHandler> requestHandlers) {
+        Set<String> signatures = new HashSet<>(requestHandlers.size() * 2);
+        for (RequestHandler handler : requestHandlers) {
+            Class<?> declaringClass = handler.declaringClass();
+            signatures.add((declaringClass == null ? "" : declaringClass.getName()) + "#" + handler.getName()
+                    + " " + handler.getPatternsCondition().getPatterns() + " " + handler.supportedMethods());
+        }
+        return signatures;
+    }
+
+    private DocumentationContext buildContext(DocumentationPlugin plugin, List<RequestHandler> requestHandlers) {
+        List<AlternateTypeRule> rules = new ArrayList<>();
+        for (AlternateTypeRuleConvention convention : typeConventions) {
+            rules.addAll(convention.rules());
+        }
+        return plugin.configure(documentationPluginsManager
+                .createContextBuilder(plugin.getDocumentationType(), defaultConfiguration)
+                .rules(rules)
+                .requestHandlers(requestHandlers));
+    }
+
+    /**
+     * 由本starter创建的分组按 base-package、base-path、exclude-path 在索引中筛选请求处理器，其他 Docket 使用全部请求处理器
+     */
+    private List<RequestHandler> selectRequestHandlers(String groupName, SwaggerRequestHandlerIndex index) {
+        if (swaggerProperties.getDocket().isEmpty()) {
+            if (Docket.DEFAULT_GROUP_NAME.equals(groupName)) {
+                return index.select(swaggerProperties.getBasePackage(), SwaggerPathSelectors.paths(
+                        swaggerProperties.getBasePath(), swaggerProperties.getExcludePath()));
+            }
+            return index.all();
+        }
+        SwaggerProperties.DocketInfo docketInfo = swaggerProperties.getDocket().get(groupName);
+        if (docketInfo == null) {
+            return index.all();
+        }
+        return index.select(docketInfo.getBasePackage(),
+                SwaggerPathSelectors.paths(docketInfo.getBasePath(), docketInfo.getExcludePath()));
+    }
+
+    private SwaggerRequestHandlerIndex handlerIndex() {
+        SwaggerRequestHandlerIndex index = handlerIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = handlerIndex;
+                if (index == null) {
+                    index = new SwaggerRequestHandlerIndex(requestHandlers());
+                    handlerIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private List<RequestHandler> requestHandlers() {
+        List<RequestHandler> requestHandlers = new ArrayList<>();
+        for (RequestHandlerProvider handlerProvider : handlerProviders) {
+            requestHandlers.addAll(handlerProvider.requestHandlers());
+        }
+        return combiner.combine(requestHandlers);
+    }
+
+    /**
+     * 启用的分组，与springfox的 DocumentationPluginsBootstrapper 一样按 {@link Orderings#pluginOrdering()} 排序，
+     * 串行扫描时全局计数的 operationId 与springfox默认的扫描结果一致
+     */
+    private List<DocumentationPlugin> enabledPlugins() {
+        List<DocumentationPlugin> plugins = new ArrayList<>();
+        for (DocumentationPlugin plugin : Orderings.pluginOrdering()
+                .sortedCopy(documentationPluginsManager.documentationPlugins())) {
+            if (plugin.isEnabled()) {
+                plugins.add(plugin);
+            }
+        }
+        return plugins;
+    }
+
+    @Override
+    public void start() {
+        // 开启快照时由 SwaggerDocumentationSnapshot 决定是否需要扫描
+        if (running.compareAndSet(false, true)
+                && swaggerProperties.getScanMode() == SwaggerProperties.ScanMode.EAGER
+                && !swaggerProperties.getSnapshot().getEnabled()) {
+            ensureAllScanned();
+            documentationMetrics.logSummary();
+        }
+    }
+
+    /**
+     * 应用就绪后，async 模式在低优先级的后台线程中扫描所有分组
+     */
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (swaggerProperties.getScanMode() != SwaggerProperties.ScanMode.ASYNC || !running.get()) {
+            return;
+        }
+        CompletableFuture<Void> scan = backgroundScan;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("swagger-async-");
+        threadFactory.setDaemon(true);
+        threadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+        threadFactory.newThread(() -> {
+            try {
+                ensureAllScanned();
+                documentationMetrics.logSummary();
+            } catch (Exception e) {
+                log.error("Unable to scan swagger documentation in background", e);
+            } finally {
+                // 扫描失败的分组在访问时重新扫描
+                scan.complete(null);
+            }
+        }).start();
+    }
+
+    /**
+     * async 模式下等待后台扫描完成，其他模式直接返回
+     *
+     * @param timeoutMillis 最多等待的时间（毫秒）
+     * @return 后台扫描是否已经结束
+     */
+    public boolean awaitBackgroundScan(long timeoutMillis) {
+        CompletableFuture<Void> scan = backgroundScan;
+        if (swaggerProperties.getScanMode() != SwaggerProperties.ScanMode.ASYNC || scan.isDone()) {
+            return true;
+        }
+        if (timeoutMillis <= 0) {
+            return false;
+        }
+        try {
+            scan.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return scan.isDone();
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (this) {
+            running.set(false);
+            backgroundScan = new CompletableFuture<>();
+            scannedGroups.clear();
+            handlerSignatures.clear();
+            handlerIndex = null;
+            documentationCache.clear();
+            if (sharedModelProvider != null) {
+                sharedModelProvider.clear();
+            }
+        }
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,404 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 文档快照：将每个分组的api-docs模板保存到本地目录，目录以classpath、SwaggerProperties、context path与host配置的指纹命名。
+ * 重启时指纹一致则不扫描，由 {@link SwaggerApiDocsCache} 使用快照中的模板按请求生成尚未扫描的分组的api-docs，
+ * 并在后台线程中检查快照中各分组选中的接口是否发生变化，发生变化的分组会被移出快照，下一次访问时重新扫描并更新快照。
+ */
+@Slf4j
+public class SwaggerDocumentationSnapshot implements SmartLifecycle {
+
+    private static final String SIGNATURES_FILE = "signatures.json";
+
+    /**
+     * 快照目录中的标记文件，内容为应用的标识，只有带有相同标识的目录才会作为旧快照被删除
+     */
+    static final String MARKER_FILE = ".swagger-snapshot";
+
+    private final SwaggerProperties swaggerProperties;
+    private final SwaggerDocumentationScanner scanner;
+    private final SwaggerApiDocsCache apiDocsCache;
+    private final SwaggerDocumentationFingerprints documentationFingerprints;
+    private final String basePath;
+    private final String host;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 快照中仍然有效的分组
+     */
+    private final Map<String, SavedGroup> groups = new ConcurrentHashMap<>();
+
+    /**
+     * 保存失败的分组，应用重启前不再尝试保存
+     */
+    private final Set<String> failedGroups = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile Path directory;
+
+    public SwaggerDocumentationSnapshot(SwaggerProperties swaggerProperties,
+                                        SwaggerDocumentationScanner scanner,
+                                        SwaggerApiDocsCache apiDocsCache,
+                                        SwaggerDocumentationFingerprints documentationFingerprints,
+                                        String basePath,
+                                        String host) {
+        this.swaggerProperties = swaggerProperties;
+        this.scanner = scanner;
+        this.apiDocsCache = apiDocsCache;
+        this.documentationFingerprints = documentationFingerprints;
+        this.basePath = basePath;
+        this.host = host;
+    }
+
+    /**
+     * 分组扫描完成后保存到快照，已经在快照中或保存失败过的分组不会重复保存
+     *
+     * @param groupName 分组名称
+     */
+    public void saveIfAbsent(String groupName) {
+        if (!swaggerProperties.getSnapshot().getEnabled() || isSavedOrFailed(groupName)) {
+            return;
+        }
+        synchronized (this) {
+            // 先检查再序列化，并发调用时只有第一个线程序列化文档
+            if (isSavedOrFailed(groupName)) {
+                return;
+            }
+            String handlerFingerprint = scanner.getHandlerFingerprint(groupName);
+            if (handlerFingerprint == null) {
+                return;
+            }
+            try {
+                Path dir = createDirectory();
+                String fileName = SwaggerSpecExporter.fileName(groupName);
+                Path temp = Files.createTempFile(dir, fileName, ".tmp");
+                SwaggerApiDocsCache.Snapshot exported = apiDocsCache.exportSnapshot(groupName, temp);
+                if (exported == null) {
+                    Files.delete(temp);
+                    return;
+                }
+                Files.move(temp, file(dir, groupName), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                groups.put(groupName, new SavedGroup(handlerFingerprint, exported.getBasePath(), exported.getHost()));
+                writeIndex(dir);
+            } catch (IOException e) {
+                failedGroups.add(groupName);
+                log.warn(String.format("Unable to save swagger documentation snapshot of group %s, "
+                        + "the group will not be saved again until restart", groupName), e);
+            }
+        }
+    }
+
+    private boolean isSavedOrFailed(String groupName) {
+        return groups.containsKey(groupName) || failedGroups.contains(groupName);
+    }
+
+    /**
+     * 创建快照目录并写入标记文件
+     */
+    private Path createDirectory() throws IOException {
+        Path dir = directory();
+        Path marker = dir.resolve(MARKER_FILE);
+        if (!Files.exists(marker)) {
+            Files.createDirectories(dir);
+            Files.write(marker, owner().getBytes(StandardCharsets.UTF_8));
+        }
+        return dir;
+    }
+
+    private static Path file(Path dir, String groupName) {
+        return dir.resolve(SwaggerSpecExporter.fileName(groupName) + SwaggerSpecExporter.SPEC_SUFFIX);
+    }
+
+    private void writeIndex(Path dir) throws IOException {
+        objectMapper.writeValue(dir.resolve(SIGNATURES_FILE).toFile(), new TreeMap<>(groups));
+        objectMapper.writeValue(dir.resolve(SwaggerSpecExporter.INDEX_FILE).toFile(), new ArrayList<>(groups.keySet()));
+    }
+
+    /**
+     * 从快照中移除分组，下一次扫描后重新保存
+     *
+     * @param groupName 分组名称
+     */
+    public synchronized void invalidate(String groupName) {
+        failedGroups.remove(groupName);
+        if (groups.remove(groupName) == null) {
+            return;
+        }
+        apiDocsCache.discard(groupName);
+        try {
+            Path dir = directory();
+            Files.deleteIfExists(file(dir, groupName));
+            writeIndex(dir);
+        } catch (IOException e) {
+            log.warn(String.format("Unable to update swagger documentation snapshot of group %s", groupName), e);
+        }
+    }
+
+    /**
+     * 加载指纹一致的快照，快照中的分组交由 {@link SwaggerApiDocsCache} 按请求生成api-docs
+     *
+     * @return 是否存在可用的快照
+     */
+    private boolean loadSnapshot() throws IOException {
+        Path dir = directory();
+        Path signatures = dir.resolve(SIGNATURES_FILE);
+        if (!Files.exists(signatures)) {
+            return false;
+        }
+        Map<String, SavedGroup> saved = objectMapper.readValue(signatures.toFile(),
+                new TypeReference<Map<String, SavedGroup>>() {
+                });
+        List<String> groupNames = scanner.getGroupNames();
+        for (Map.Entry<String, SavedGroup> entry : saved.entrySet()) {
+            String groupName = entry.getKey();
+            SavedGroup group = entry.getValue();
+            Path file = file(dir, groupName);
+            if (groupNames.contains(groupName) && Files.isRegularFile(file)) {
+                groups.put(groupName, group);
+                apiDocsCache.restore(groupName,
+                        new SwaggerApiDocsCache.Snapshot(group.getBasePath(), group.getHost(), file));
+                if (documentationFingerprints != null) {
+                    documentationFingerprints.record(groupName);
+                }
+            }
+        }
+        return !groups.isEmpty();
+    }
+
+    /**
+     * 在低优先级线程中检查快照中每个分组选中的请求处理器是否发生变化
+     */
+    private void validateInBackground() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("swagger-snapshot-");
+        threadFactory.setDaemon(true);
+        threadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+        threadFactory.newThread(() -> {
+            try {
+                for (String groupName : new ArrayList<>(groups.keySet())) {
+                    SavedGroup group = groups.get(groupName);
+                    if (group != null && !scanner.currentHandlerFingerprint(groupName).equals(group.getHandlers())) {
+                        log.info("Request handlers of group {} changed, swagger documentation snapshot invalidated",
+                                groupName);
+                        invalidate(groupName);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Unable to validate swagger documentation snapshot", e);
+            }
+        }).start();
+    }
+
+    /**
+     * 快照目录：配置的目录下以classpath与配置的指纹命名的子目录
+     */
+    private Path directory() throws IOException {
+        Path dir = directory;
+        if (dir == null) {
+            String configured = swaggerProperties.getSnapshot().getDirectory();
+            Path root = StringUtils.hasText(configured) ? Paths.get(configured)
+                    : Paths.get(System.getProperty("java.io.tmpdir"), "swagger-snapshot");
+            dir = root.resolve(fingerprint());
+            directory = dir;
+        }
+        return dir;
+    }
+
+    /**
+     * classpath中每个条目的路径、大小与修改时间，以及 SwaggerProperties、context path与host配置的内容
+     */
+    private String fingerprint() throws IOException {
+        StringBuilder builder = new StringBuilder(swaggerProperties.toString())
+                .append('\n').append(basePath)
+                .append('\n').append(host);
+        for (String entry : classpathEntries()) {
+            builder.append('\n').append(entry);
+            File file = classpathFile(entry);
+            if (file != null && file.exists()) {
+                builder.append(' ').append(stat(file.toPath()));
+            }
+        }
+        return DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 应用的标识：classpath中每个条目的路径，不随重新构建变化，用于区分同一目录下其他应用的快照
+     */
+    private String owner() {
+        return DigestUtils.md5DigestAsHex(String.join("\n", classpathEntries()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Set<String> classpathEntries() {
+        Set<String> entries = new LinkedHashSet<>();
+        for (ClassLoader classLoader = getClass().getClassLoader(); classLoader != null;
+             classLoader = classLoader.getParent()) {
+            if (classLoader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+                    entries.add(url.toString());
+                }
+            }
+        }
+        entries.addAll(Arrays.asList(
+                StringUtils.tokenizeToStringArray(System.getProperty("java.class.path", ""), File.pathSeparator)));
+        return entries;
+    }
+
+    private static File classpathFile(String entry) {
+        try {
+            if (entry.startsWith(ResourceUtils.JAR_URL_PREFIX)) {
+                // 嵌套jar（如Spring Boot可执行jar）使用外层jar的大小与修改时间
+                return ResourceUtils.getFile(ResourceUtils.extractArchiveURL(new URL(entry)));
+            }
+            if (entry.startsWith(ResourceUtils.FILE_URL_PREFIX)) {
+                return ResourceUtils.getFile(new URL(entry));
+            }
+            return new File(entry);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String stat(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return attributes.size() + "/" + attributes.lastModifiedTime().toMillis();
+        }
+        long[] stat = new long[3];
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                stat[0]++;
+                stat[1] += attributes.size();
+                stat[2] = Math.max(stat[2], attributes.lastModifiedTime().toMillis());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return stat[0] + "/" + stat[1] + "/" + stat[2];
+    }
+
+    /**
+     * 删除本应用其他指纹的旧快照：只删除带有标记文件且标记为本应用的目录，快照目录中的其他内容保持不变
+     */
+    private void deleteStaleSnapshots() throws IOException {
+        Path dir = directory();
+        Path root = dir.getParent();
+        if (root == null || !Files.isDirectory(root)) {
+            return;
+        }
+        String owner = owner();
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(root)) {
+            for (Path child : children) {
+                Path marker = child.resolve(MARKER_FILE);
+                if (!child.equals(dir) && Files.isRegularFile(marker)
+                        && owner.equals(new String(Files.readAllBytes(marker), StandardCharsets.UTF_8))) {
+                    FileSystemUtils.deleteRecursively(child.toFile());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!running.compareAndSet(false, true) || !swaggerProperties.getSnapshot().getEnabled()) {
+            return;
+        }
+        try {
+            if (loadSnapshot()) {
+                log.info("Using swagger documentation snapshot {} for group(s) {}", directory(), groups.keySet());
+                if (swaggerProperties.getSnapshot().getValidate()) {
+                    validateInBackground();
+                }
+                return;
+            }
+            deleteStaleSnapshots();
+        } catch (IOException e) {
+            log.warn("Unable to load swagger documentation snapshot", e);
+        }
+        if (swaggerProperties.getScanMode() == SwaggerProperties.ScanMode.EAGER) {
+            scanner.ensureAllScanned();
+            for (String groupName : scanner.getGroupNames()) {
+                saveIfAbsent(groupName);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        running.set(false);
+        for (String groupName : groups.keySet()) {
+            apiDocsCache.discard(groupName);
+        }
+        groups.clear();
+        failedGroups.clear();
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * 快照中的分组：选中的请求处理器的指纹，以及按请求生成api-docs所需的文档配置
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class SavedGroup {
+
+        /**
+         * 分组选中的请求处理器的指纹
+         */
+        private String handlers;
+
+        /**
+         * 文档配置的basePath
+         */
+        private String basePath;
+
+        /**
+         * 文档配置的host，未配置时为null
+         */
+        private String host;
+    }
+}
@@ -0,0 +1,69 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 文档指纹接口：
+ * GET {api-docs路径}/fingerprints 返回各分组文档的指纹，客户端可以据此判断文档是否变化而无需下载完整的api-docs；
+ * 带上 group 与 since 参数时返回该分组从 since 版本到当前版本新增、删除与修改的 path 和 definition
+ */
+public class SwaggerFingerprintFilter extends OncePerRequestFilter {
+
+    static final String FINGERPRINTS_PATH = "/fingerprints";
+
+    private final SwaggerDocumentationFingerprints documentationFingerprints;
+    private final String fingerprintsPath;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public SwaggerFingerprintFilter(SwaggerDocumentationFingerprints documentationFingerprints, String apiDocsPath) {
+        this.documentationFingerprints = documentationFingerprints;
+        this.fingerprintsPath = apiDocsPath + FINGERPRINTS_PATH;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || !fingerprintsPath.equals(urlPathHelper.getPathWithinApplication(request));
+    }
+
+    /**
+     * 限流排队的请求通过异步分派重新进入，见 {@link SwaggerThrottlingFilter}
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String groupName = request.getParameter("group");
+        String since = request.getParameter("since");
+        Object body;
+        if (groupName == null || since == null) {
+            body = documentationFingerprints.fingerprints();
+        } else {
+            body = documentationFingerprints.diff(groupName, since);
+            if (body == null) {
+                // 分组没有已生成的文档，或 since 版本已不在保留范围内，客户端需要重新下载完整的api-docs
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+                return;
+            }
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,124 @@
+package com.spring4all.swagger;
+
+import org.springframework.web.util.UriComponentsBuilder;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.service.Tag;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.swagger.web.SwaggerResource;
+import springfox.documentation.swagger.web.SwaggerResourcesProvider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 根据已注册的 Docket（prebuilt 模式下为预生成文档的索引）生成 swagger-resources，无需等待文档扫描完成。
+ * 开启 tags-on-demand 时，已生成文档的分组按标签拆分为多个文档
+ */
+public class SwaggerGroupResourcesProvider implements SwaggerResourcesProvider {
+
+    private final SwaggerProperties swaggerProperties;
+    private final SwaggerDocumentationScanner scanner;
+    private final SwaggerPrebuiltApiDocs prebuiltApiDocs;
+    private final DocumentationCache documentationCache;
+    private final SwaggerApiDocsViews apiDocsViews;
+    private final String apiDocsPath;
+
+    public SwaggerGroupResourcesProvider(SwaggerProperties swaggerProperties,
+                                         SwaggerDocumentationScanner scanner,
+                                         SwaggerPrebuiltApiDocs prebuiltApiDocs,
+                                         DocumentationCache documentationCache,
+                                         SwaggerApiDocsViews apiDocsViews,
+                                         String apiDocsPath) {
+        this.swaggerProperties = swaggerProperties;
+        this.scanner = scanner;
+        this.prebuiltApiDocs = prebuiltApiDocs;
+        this.documentationCache = documentationCache;
+        this.apiDocsViews = apiDocsViews;
+        this.apiDocsPath = apiDocsPath;
+    }
+
+    @Override
+    public List<SwaggerResource> get() {
+        List<SwaggerResource> resources = new ArrayList<>();
+        boolean prebuilt = swaggerProperties.getScanMode() == SwaggerProperties.ScanMode.PREBUILT;
+        List<String> groupNames = prebuilt ? prebuiltApiDocs.getGroupNames() : scanner.getGroupNames();
+        boolean tagsOnDemand = Boolean.TRUE.equals(swaggerProperties.getUiConfig().getTagsOnDemand());
+        for (String groupName : groupNames) {
+            String url = Docket.DEFAULT_GROUP_NAME.equals(groupName)
+                    ? apiDocsPath : apiDocsPath + "?group=" + groupName;
+            List<String> tagNames = tagsOnDemand ? tagNames(groupName, prebuilt) : Collections.emptyList();
+            if (tagNames.isEmpty()) {
+                resources.add(resource(groupName, url));
+                continue;
+            }
+            for (String tagName : tagNames) {
+                UriComponentsBuilder builder = UriComponentsBuilder.fromPath(apiDocsPath);
+                if (!Docket.DEFAULT_GROUP_NAME.equals(groupName)) {
+                    builder.queryParam("group", groupName);
+                }
+                resources.add(resource(groupName + " / " + tagName,
+                        builder.queryParam("tag", tagName).build().encode().toUriString()));
+            }
+        }
+        Collections.sort(resources);
+        return resources;
+    }
+
+    /**
+     * swagger-resources 在应用上下文的整个生命周期内是否不变：分组在Docket创建后固定，
+     * 开启 tags-on-demand 时会随分组文档的生成、移除与刷新变化
+     *
+     * @return 是否不变
+     */
+    public boolean isFixed() {
+        return !Boolean.TRUE.equals(swaggerProperties.getUiConfig().getTagsOnDemand());
+    }
+
+    /**
+     * swagger-resources 所依赖的文档版本，返回值变化（与上次返回的列表中的元素不是同一个对象）时需要重新生成 swagger-resources。
+     * 未开启 tags-on-demand 时 swagger-resources 只取决于分组名称，始终返回空列表
+     *
+     * @return 每个分组当前的文档对象，尚未生成文档的分组为null
+     */
+    public List<Object> version() {
+        if (isFixed()) {
+            return Collections.emptyList();
+        }
+        boolean prebuilt = swaggerProperties.getScanMode() == SwaggerProperties.ScanMode.PREBUILT;
+        List<String> groupNames = prebuilt ? prebuiltApiDocs.getGroupNames() : scanner.getGroupNames();
+        List<Object> version = new ArrayList<>(groupNames.size());
+        for (String groupName : groupNames) {
+            version.add(prebuilt ? prebuiltApiDocs.get(groupName) : documentationCache.documentationByGroup(groupName));
+        }
+        return version;
+    }
+
+    /**
+     * 分组的标签，只使用已生成的文档，尚未扫描的分组返回空列表，按整个分组加载
+     */
+    private List<String> tagNames(String groupName, boolean prebuilt) {
+        if (prebuilt) {
+            SwaggerApiDocs apiDocs = prebuiltApiDocs.get(groupName);
+            return apiDocs == null ? Collections.emptyList() : apiDocsViews.tagNames(groupName, apiDocs);
+        }
+        Documentation documentation = documentationCache.documentationByGroup(groupName);
+        if (documentation == null) {
+            return Collections.emptyList();
+        }
+        List<String> tagNames = new ArrayList<>();
+        for (Tag tag : documentation.getTags()) {
+            tagNames.add(tag.getName());
+        }
+        return tagNames;
+    }
+
+    private static SwaggerResource resource(String name, String url) {
+        SwaggerResource swaggerResource = new SwaggerResource();
+        swaggerResource.setName(name);
+        swaggerResource.setUrl(url);
+        swaggerResource.setSwaggerVersion("2.0");
+        return swaggerResource;
+    }
+}
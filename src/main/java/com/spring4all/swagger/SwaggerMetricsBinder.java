@@ -0,0 +1,66 @@
+package com.spring4all.swagger;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 将 {@link SwaggerDocumentationMetrics} 中各分组的统计信息注册为 Micrometer 指标，使用 group 标签区分分组
+ */
+public class SwaggerMetricsBinder implements MeterBinder {
+
+    private final SwaggerDocumentationMetrics documentationMetrics;
+    private final SwaggerDocumentationScanner scanner;
+
+    public SwaggerMetricsBinder(SwaggerDocumentationMetrics documentationMetrics,
+                                SwaggerDocumentationScanner scanner) {
+        this.documentationMetrics = documentationMetrics;
+        this.scanner = scanner;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("swagger.docs.groups.disabled", documentationMetrics,
+                metrics -> metrics.getDisabledGroups().size())
+                .description("Groups skipped because they are disabled or their profiles are not active")
+                .register(registry);
+        for (String groupName : scanner.getGroupNames()) {
+            timeGauge(registry, "swagger.docs.build.time", "Time spent building the docket", groupName,
+                    SwaggerDocumentationMetrics.Snapshot::getDocketBuildMillis);
+            timeGauge(registry, "swagger.docs.scan.time", "Time spent scanning the documentation", groupName,
+                    SwaggerDocumentationMetrics.Snapshot::getScanMillis);
+            timeGauge(registry, "swagger.docs.model.resolution.time", "Time spent resolving models", groupName,
+                    SwaggerDocumentationMetrics.Snapshot::getModelResolutionMillis);
+            gauge(registry, "swagger.docs.handlers", "Request handlers selected by the group", null, groupName,
+                    SwaggerDocumentationMetrics.Snapshot::getHandlers);
+            gauge(registry, "swagger.docs.operations", "Documented operations", null, groupName,
+                    SwaggerDocumentationMetrics.Snapshot::getOperations);
+            gauge(registry, "swagger.docs.models", "Documented models", null, groupName,
+                    SwaggerDocumentationMetrics.Snapshot::getModels);
+            gauge(registry, "swagger.docs.cache.size", "Serialized api-docs retained by the cache", "bytes", groupName,
+                    SwaggerDocumentationMetrics.Snapshot::getCachedBytes);
+        }
+    }
+
+    private void timeGauge(MeterRegistry registry, String name, String description, String groupName,
+                           ToDoubleFunction<SwaggerDocumentationMetrics.Snapshot> millis) {
+        TimeGauge.builder(name, documentationMetrics, TimeUnit.MILLISECONDS,
+                metrics -> millis.applyAsDouble(metrics.snapshot(groupName)))
+                .description(description)
+                .tag("group", groupName)
+                .register(registry);
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, String baseUnit, String groupName,
+                       ToDoubleFunction<SwaggerDocumentationMetrics.Snapshot> value) {
+        Gauge.builder(name, documentationMetrics, metrics -> value.applyAsDouble(metrics.snapshot(groupName)))
+                .description(description)
+                .baseUnit(baseUnit)
+                .tag("group", groupName)
+                .register(registry);
+    }
+}
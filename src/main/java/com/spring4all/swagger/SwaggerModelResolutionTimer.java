@@ -0,0 +1,67 @@
+package com.spring4all.swagger;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import springfox.documentation.spi.service.contexts.RequestMappingContext;
+import springfox.documentation.spring.web.scanners.ApiModelReader;
+
+/**
+ * 统计模型解析耗时：代理springfox的 {@link ApiModelReader}，将每次 read 的耗时按分组累加到 {@link SwaggerDocumentationMetrics}
+ */
+public class SwaggerModelResolutionTimer implements BeanPostProcessor, BeanFactoryAware {
+
+    private BeanFactory beanFactory;
+
+    private volatile SwaggerDocumentationMetrics documentationMetrics;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!(bean instanceof ApiModelReader)) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Object[] arguments = invocation.getArguments();
+            if (!"read".equals(invocation.getMethod().getName())
+                    || arguments.length != 1 || !(arguments[0] instanceof RequestMappingContext)) {
+                return invocation.proceed();
+            }
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                // RequestMappingContext#getGroupName 是控制器所在的资源分组，统计按 Docket 分组
+                documentationMetrics().addModelResolution(((RequestMappingContext) arguments[0])
+                        .getDocumentationContext().getGroupName(), System.nanoTime() - start);
+            }
+        });
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    /**
+     * 延迟获取，避免 BeanPostProcessor 过早初始化其他bean
+     */
+    private SwaggerDocumentationMetrics documentationMetrics() {
+        SwaggerDocumentationMetrics metrics = documentationMetrics;
+        if (metrics == null) {
+            metrics = beanFactory.getBean(SwaggerDocumentationMetrics.class);
+            documentationMetrics = metrics;
+        }
+        return metrics;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = beanFactory;
+    }
+}
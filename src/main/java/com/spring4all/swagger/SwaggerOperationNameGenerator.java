@@ -0,0 +1,106 @@
+package com.spring4all.swagger;
+
+import springfox.documentation.spring.web.readers.operation.CachingOperationNameGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 替代springfox的 {@link CachingOperationNameGenerator}，由 {@link SwaggerSpringfoxBeanReplacer} 替换。
+ * springfox 在所有分组之间共用一个非线程安全的计数器，并行扫描时同名接口的 operationId 后缀取决于分组的扫描顺序。
+ * 替换后默认仍使用加锁的全局计数器，结果与springfox一致；在 {@link #scoped(Map, Supplier)} 内扫描的分组使用独立的计数器，
+ * 用于并行扫描，以及分组重新扫描时从第一次扫描前的计数开始，得到与第一次扫描相同的 operationId
+ */
+public class SwaggerOperationNameGenerator extends CachingOperationNameGenerator {
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    /**
+     * 所有分组共用的计数器，与springfox相同
+     */
+    private final Map<String, Integer> generated = new HashMap<>();
+
+    /**
+     * 在独立的计数器中执行一次分组扫描
+     *
+     * @param base 计数器的初始值，为空时所有名称都从头计数
+     * @param scan 分组扫描
+     * @param <T>  扫描结果
+     * @return 扫描结果
+     */
+    public static <T> T scoped(Map<String, Integer> base, Supplier<T> scan) {
+        Map<String, Integer> counters = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : base.entrySet()) {
+            if (entry.getValue() != null) {
+                counters.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return inScope(new Scope(counters, null), scan);
+    }
+
+    /**
+     * 使用全局计数器执行一次分组扫描，并记录扫描中用到的每个名称在扫描前的计数（未使用过为null），
+     * 之后可以作为 {@link #scoped(Map, Supplier)} 的初始值重新扫描该分组
+     *
+     * @param base 记录扫描前的计数
+     * @param scan 分组扫描
+     * @param <T>  扫描结果
+     * @return 扫描结果
+     */
+    public static <T> T recorded(Map<String, Integer> base, Supplier<T> scan) {
+        return inScope(new Scope(null, base), scan);
+    }
+
+    private static <T> T inScope(Scope scope, Supplier<T> scan) {
+        Scope previous = SCOPE.get();
+        SCOPE.set(scope);
+        try {
+            return scan.get();
+        } finally {
+            if (previous == null) {
+                SCOPE.remove();
+            } else {
+                SCOPE.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public String startingWith(String prefix) {
+        Scope scope = SCOPE.get();
+        if (scope != null && scope.counters != null) {
+            return next(scope.counters, prefix);
+        }
+        synchronized (this) {
+            if (scope != null && !scope.base.containsKey(prefix)) {
+                scope.base.put(prefix, generated.get(prefix));
+            }
+            return next(generated, prefix);
+        }
+    }
+
+    private static String next(Map<String, Integer> counters, String prefix) {
+        Integer count = counters.get(prefix);
+        if (count == null) {
+            counters.put(prefix, 0);
+            return prefix;
+        }
+        counters.put(prefix, count + 1);
+        return String.format("%s_%s", prefix, count + 1);
+    }
+
+    /**
+     * 当前线程的计数方式：counters 不为空时使用独立的计数器，否则使用全局计数器并记录到 base
+     */
+    private static class Scope {
+
+        private final Map<String, Integer> counters;
+        private final Map<String, Integer> base;
+
+        Scope(Map<String, Integer> counters, Map<String, Integer> base) {
+            this.counters = counters;
+            this.base = base;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.spring4all.swagger;
+
+import com.google.common.base.Predicate;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 根据 base-path 与 exclude-path 配置生成路径选择器
+ */
+public class SwaggerPathSelectors {
+
+    private SwaggerPathSelectors() {
+    }
+
+    /**
+     * 匹配任意一个 base-path 且不匹配任何 exclude-path 的路径，base-path 为空时匹配 /**。
+     * 所有规则会被编译为 {@link AntPathTrie}，每个路径只需要遍历一次，匹配结果与逐个使用 PathSelectors.ant 一致
+     *
+     * @param basePath    需要处理的URL规则
+     * @param excludePath 需要排除的URL规则
+     * @return 路径选择器
+     */
+    public static Predicate<String> paths(List<String> basePath, List<String> excludePath) {
+        AntPathTrie includes = new AntPathTrie(basePath.isEmpty() ? Collections.singletonList("/**") : basePath);
+        AntPathTrie excludes = new AntPathTrie(excludePath);
+        return path -> !excludes.matches(path) && includes.matches(path);
+    }
+}
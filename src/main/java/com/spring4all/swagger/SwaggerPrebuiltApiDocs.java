@@ -0,0 +1,81 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 构建时生成的api-docs，由 {@link SwaggerSpecExporter} 生成并打包到classpath中
+ */
+public class SwaggerPrebuiltApiDocs {
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final SwaggerApiDocsStorage apiDocsStorage;
+
+    private final Map<String, SwaggerApiDocs> apiDocs = new ConcurrentHashMap<>();
+    private volatile List<String> groupNames;
+
+    public SwaggerPrebuiltApiDocs(ResourceLoader resourceLoader, String location,
+                                  SwaggerApiDocsStorage apiDocsStorage) {
+        this.resourceLoader = resourceLoader;
+        this.location = location.endsWith("/") ? location : location + "/";
+        this.apiDocsStorage = apiDocsStorage;
+    }
+
+    /**
+     * 获取预生成文档的分组
+     *
+     * @return 分组名称，索引文件不存在时返回空列表
+     */
+    public List<String> getGroupNames() {
+        if (groupNames == null) {
+            Resource index = resourceLoader.getResource(location + SwaggerSpecExporter.INDEX_FILE);
+            if (!index.exists()) {
+                groupNames = Collections.emptyList();
+            } else {
+                try (InputStream in = index.getInputStream()) {
+                    groupNames = Collections.unmodifiableList(
+                            new ObjectMapper().readValue(in, new TypeReference<List<String>>() {
+                            }));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return groupNames;
+    }
+
+    /**
+     * 获取分组的预生成文档
+     *
+     * @param groupName 分组名称
+     * @return 分组不存在时返回null
+     */
+    public SwaggerApiDocs get(String groupName) {
+        if (!getGroupNames().contains(groupName)) {
+            return null;
+        }
+        return apiDocs.computeIfAbsent(groupName, this::load);
+    }
+
+    private SwaggerApiDocs load(String groupName) {
+        Resource resource = resourceLoader.getResource(location + SwaggerSpecExporter.fileName(groupName)
+                + SwaggerSpecExporter.SPEC_SUFFIX);
+        try (InputStream in = resource.getInputStream()) {
+            return apiDocsStorage.store(StreamUtils.copyToByteArray(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -108,6 +108,227 @@ public class SwaggerProperties {
      **/
     private Authorization authorization = new Authorization();
 
+    /**
+     * 文档扫描模式，可选 eager | lazy | async | prebuilt，默认eager：启动时扫描；lazy：首次访问文档时按分组扫描；
+     * async：应用就绪后在后台线程中扫描；prebuilt：不扫描，直接使用构建时生成的文档
+     **/
+    private ScanMode scanMode = ScanMode.EAGER;
+
+    /**
+     * prebuilt 模式下预生成文档的位置
+     **/
+    private String prebuiltLocation = "classpath:META-INF/swagger/";
+
+    /**
+     * 创建与扫描分组文档的线程数，默认1：串行处理；大于1时使用固定大小的线程池并行处理各分组
+     **/
+    private Integer scanThreads = 1;
+
+    /**
+     * 是否在分组之间共享解析后的模型，默认开启：ignoredParameterTypes相同的分组只解析一次相同的类型，并复用同一份模型对象
+     **/
+    private Boolean shareModels = true;
+
+    /**
+     * api-docs缓存配置
+     **/
+    private Cache cache = new Cache();
+
+    /**
+     * 文档快照配置
+     **/
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * async 扫描模式配置
+     **/
+    private Async async = new Async();
+
+    /**
+     * 文档指纹配置
+     **/
+    private Fingerprint fingerprint = new Fingerprint();
+
+    /**
+     * 文档请求限流配置
+     **/
+    private Throttle throttle = new Throttle();
+
+    @Data
+    @NoArgsConstructor
+    public static class Throttle {
+
+        /**
+         * 是否限制文档请求（api-docs、swagger-resources、swagger-ui.html 与 webjars 资源）的并发，默认false
+         **/
+        private Boolean enabled = false;
+
+        /**
+         * 同时处理的文档请求数量上限，默认2
+         **/
+        private Integer maxConcurrent = 2;
+
+        /**
+         * 排队等待的文档请求数量上限，排队中的请求不占用容器线程，队列已满时返回429，默认20
+         **/
+        private Integer queueSize = 20;
+
+        /**
+         * 请求排队的最长时间（毫秒），超时后返回429，默认10000
+         **/
+        private Long queueTimeout = 10000L;
+
+        /**
+         * 返回429时 Retry-After 响应头的值（秒），默认5
+         **/
+        private Integer retryAfter = 5;
+
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Fingerprint {
+
+        /**
+         * 是否开放 {api-docs路径}/fingerprints 接口，用于查询各分组文档的指纹及两个版本之间的差异，默认true
+         **/
+        private Boolean enabled = true;
+
+        /**
+         * 每个分组保留的历史版本数量，只能与保留范围内的版本计算差异，默认10
+         **/
+        private Integer history = 10;
+
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Async {
+
+        /**
+         * 后台扫描完成前，api-docs请求最多等待的时间（毫秒），默认0：不等待，直接返回503
+         **/
+        private Long waitTimeout = 0L;
+
+        /**
+         * 返回503时 Retry-After 响应头的值（秒），默认10
+         **/
+        private Integer retryAfter = 10;
+
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Snapshot {
+
+        /**
+         * 是否将文档快照保存到本地目录，重启时classpath与配置未变化则直接使用快照，默认false
+         **/
+        private Boolean enabled = false;
+
+        /**
+         * 快照目录，默认为系统临时目录下的swagger-snapshot
+         **/
+        private String directory = "";
+
+        /**
+         * 使用快照启动后，是否在后台检查快照中各分组的接口是否发生变化，默认true
+         **/
+        private Boolean validate = true;
+
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Cache {
+
+        /**
+         * 是否缓存序列化后的api-docs，默认true
+         **/
+        private Boolean enabled = true;
+
+        /**
+         * 最多在内存中保留的分组文档数量，超出时移除最久未访问的分组，默认0：不限制
+         **/
+        private Integer maxEntries = 0;
+
+        /**
+         * 最多在内存中保留的api-docs字节数（按序列化后的大小计算），超出时移除最久未访问的分组，默认0：不限制
+         **/
+        private Long maxBytes = 0L;
+
+        /**
+         * 分组文档超过指定时间（秒）未被访问时移除，默认0：不过期
+         **/
+        private Long expireAfterAccess = 0L;
+
+        /**
+         * 每个分组最多缓存的 host 与 basePath 组合数量（由请求的 Host、X-Forwarded-* 等请求头决定），
+         * 超出时移除最早生成的组合，默认8
+         **/
+        private Integer maxVariants = 8;
+
+        /**
+         * 最多缓存的过滤视图（tag、pathPrefix、operationId、page、size 参数的请求结果）数量，
+         * 超出时移除最久未使用的，0表示不缓存，默认64
+         **/
+        private Integer maxViews = 64;
+
+        /**
+         * 序列化后的api-docs的存储方式，默认heap
+         **/
+        private Storage storage = Storage.HEAP;
+
+    }
+
+    /**
+     * 文档扫描模式
+     */
+    public enum ScanMode {
+
+        /**
+         * 应用启动时扫描所有分组
+         */
+        EAGER,
+
+        /**
+         * 首次访问 api-docs 时才扫描对应分组，扫描结果会被缓存
+         */
+        LAZY,
+
+        /**
+         * 不扫描，使用 swagger-spring-boot-maven-plugin 在构建时生成的文档
+         */
+        PREBUILT,
+
+        /**
+         * 应用就绪（ApplicationReadyEvent）后在低优先级的后台线程中扫描所有分组，不阻塞启动；
+         * 扫描完成前的 api-docs 请求按 swagger.async 配置等待或返回503
+         */
+        ASYNC
+    }
+
+    /**
+     * 序列化后的api-docs的存储方式
+     */
+    public enum Storage {
+
+        /**
+         * 保存在堆内的字节数组中
+         */
+        HEAP,
+
+        /**
+         * 保存在直接内存中，减少常驻堆内存；响应输出流提供 write(ByteBuffer) 时（Tomcat、Jetty、Undertow）输出不经过堆内的数组
+         */
+        DIRECT,
+
+        /**
+         * 保存在临时文件中并通过内存映射访问，容器支持时使用sendfile输出
+         */
+        MAPPED
+    }
+
     @Data
     @NoArgsConstructor
     public static class GlobalOperationParameter {
@@ -190,6 +411,27 @@ public class SwaggerProperties {
          **/
         private List<Class<?>> ignoredParameterTypes = new ArrayList<>();
 
+        /**
+         * 是否启用该分组，默认true；未启用的分组不会创建 Docket，也不会被扫描
+         **/
+        private Boolean enabled = true;
+
+        /**
+         * 启用该分组的profile，为空时不限制；激活的profile与其中任意一个匹配时启用，支持 !prod 形式
+         **/
+        private List<String> profiles = new ArrayList<>();
+
+        /**
+         * 是否流式输出api-docs，适用于文档非常大的分组：不缓存序列化结果，paths与definitions逐项写入响应；
+         * 每次请求仍会生成完整的Swagger对象
+         **/
+        private Boolean streaming = false;
+
+        /**
+         * 分组的鉴权配置，每项通过各自的 auth-regex 匹配路径；为空时使用全局的 authorization 配置
+         **/
+        private List<Authorization> authorizations = new ArrayList<>();
+
     }
 
     @Data
@@ -330,6 +572,18 @@ public class SwaggerProperties {
          * Network
          */
         private String validatorUrl;
+
+        /**
+         * 是否按标签加载文档，默认false；开启后已生成文档的分组的每个标签作为单独的文档在页面中选择，
+         * 每次只请求该标签下的接口及其引用的模型
+         */
+        private Boolean tagsOnDemand = false;
+
+        /**
+         * swagger-resources 与页面配置响应的缓存时间（秒），期间浏览器不再发起请求，过期后通过ETag确认是否变化；
+         * 默认0：每次都通过ETag确认是否变化。开启 tags-on-demand 时 swagger-resources 始终每次确认
+         */
+        private Long resourcesMaxAge = 0L;
     }
 
     /**
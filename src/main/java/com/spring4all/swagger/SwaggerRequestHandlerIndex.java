@@ -0,0 +1,100 @@
+package com.spring4all.swagger;
+
+import com.google.common.base.Predicate;
+import org.springframework.util.ClassUtils;
+import springfox.documentation.RequestHandler;
+
+import java.util.*;
+
+/**
+ * 请求处理器索引，每个上下文只构建一次，按包名组织所有请求处理器并缓存其路径规则。
+ * 各分组通过 base-package 与路径选择器在索引上筛选，避免每个分组都遍历并反射全部请求处理器。
+ */
+public class SwaggerRequestHandlerIndex {
+
+    /**
+     * 按包名索引的请求处理器
+     */
+    private final NavigableMap<String, List<IndexedHandler>> handlersByPackage = new TreeMap<>();
+
+    /**
+     * 无法确定所属类的请求处理器，会被所有分组选中
+     */
+    private final List<IndexedHandler> unscopedHandlers = new ArrayList<>();
+
+    private final List<RequestHandler> allHandlers;
+
+    public SwaggerRequestHandlerIndex(List<RequestHandler> requestHandlers) {
+        this.allHandlers = Collections.unmodifiableList(new ArrayList<>(requestHandlers));
+        for (int i = 0; i < requestHandlers.size(); i++) {
+            RequestHandler handler = requestHandlers.get(i);
+            IndexedHandler indexedHandler = new IndexedHandler(handler, i);
+            Class<?> declaringClass = handler.declaringClass();
+            if (declaringClass == null) {
+                unscopedHandlers.add(indexedHandler);
+            } else {
+                handlersByPackage.computeIfAbsent(ClassUtils.getPackageName(declaringClass),
+                        key -> new ArrayList<>()).add(indexedHandler);
+            }
+        }
+    }
+
+    /**
+     * 所有请求处理器
+     *
+     * @return 请求处理器
+     */
+    public List<RequestHandler> all() {
+        return allHandlers;
+    }
+
+    /**
+     * 选择包名以 basePackage 开头（与 RequestHandlerSelectors.basePackage 语义一致），且至少有一个路径规则匹配 pathSelector 的请求处理器
+     *
+     * @param basePackage  基础包
+     * @param pathSelector 路径选择器
+     * @return 请求处理器，保持原有顺序
+     */
+    public List<RequestHandler> select(String basePackage, Predicate<String> pathSelector) {
+        SortedMap<String, List<IndexedHandler>> candidates =
+                handlersByPackage.subMap(basePackage, true, basePackage + Character.MAX_VALUE, true);
+        List<IndexedHandler> matched = new ArrayList<>();
+        for (List<IndexedHandler> handlers : candidates.values()) {
+            collect(handlers, pathSelector, matched);
+        }
+        collect(unscopedHandlers, pathSelector, matched);
+
+        matched.sort(Comparator.comparingInt(indexedHandler -> indexedHandler.position));
+        List<RequestHandler> selected = new ArrayList<>(matched.size());
+        for (IndexedHandler indexedHandler : matched) {
+            selected.add(indexedHandler.handler);
+        }
+        return selected;
+    }
+
+    private void collect(List<IndexedHandler> handlers, Predicate<String> pathSelector, List<IndexedHandler> matched) {
+        for (IndexedHandler indexedHandler : handlers) {
+            for (String pattern : indexedHandler.patterns) {
+                if (pathSelector.apply(pattern)) {
+                    matched.add(indexedHandler);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static class IndexedHandler {
+
+        private final RequestHandler handler;
+        private final int position;
+        private final List<String> patterns = new ArrayList<>();
+
+        IndexedHandler(RequestHandler handler, int position) {
+            this.handler = handler;
+            this.position = position;
+            for (Object pattern : handler.getPatternsCondition().getPatterns()) {
+                patterns.add(String.valueOf(pattern));
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import springfox.documentation.swagger.web.SecurityConfiguration;
+import springfox.documentation.swagger.web.UiConfiguration;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * swagger-ui 每次打开页面都会请求的 swagger-resources 与页面配置：
+ * 启动时序列化一次，之后直接输出缓存的内容，并带上ETag与 Cache-Control 响应头，默认每次通过ETag确认是否变化。
+ * swagger-resources 在所有单例（包括Docket）创建完成后生成，分组在上下文的整个生命周期内不变，
+ * 未开启 tags-on-demand 时生成后不再变化；开启后只在 {@link SwaggerGroupResourcesProvider#version()} 变化时重新生成，
+ * 此时 swagger-resources 不使用配置的缓存时间，避免浏览器使用过期的文档列表
+ */
+public class SwaggerResourcesFilter extends OncePerRequestFilter implements SmartInitializingSingleton {
+
+    static final String RESOURCES_PATH = "/swagger-resources";
+    static final String UI_CONFIGURATION_PATH = "/swagger-resources/configuration/ui";
+    static final String SECURITY_CONFIGURATION_PATH = "/swagger-resources/configuration/security";
+
+    private final SwaggerGroupResourcesProvider resourcesProvider;
+    private final String cacheControl;
+    private final String resourcesCacheControl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    private final SwaggerApiDocs uiConfiguration;
+    private final SwaggerApiDocs securityConfiguration;
+    private volatile Resources resources;
+
+    public SwaggerResourcesFilter(SwaggerGroupResourcesProvider resourcesProvider,
+                                  UiConfiguration uiConfiguration,
+                                  SecurityConfiguration securityConfiguration,
+                                  long maxAge) {
+        this.resourcesProvider = resourcesProvider;
+        this.cacheControl = SwaggerApiDocs.cacheControl(maxAge);
+        this.resourcesCacheControl = resourcesProvider.isFixed() ? cacheControl : SwaggerApiDocs.cacheControl(0);
+        this.uiConfiguration = serialize(uiConfiguration);
+        this.securityConfiguration = serialize(securityConfiguration);
+    }
+
+    /**
+     * Docket都已创建，分组名称不再变化
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        resources();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = urlPathHelper.getPathWithinApplication(request);
+        return !RESOURCES_PATH.equals(path) && !UI_CONFIGURATION_PATH.equals(path)
+                && !SECURITY_CONFIGURATION_PATH.equals(path);
+    }
+
+    /**
+     * 限流排队的请求通过异步分派重新进入，见 {@link SwaggerThrottlingFilter}
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        if (UI_CONFIGURATION_PATH.equals(path)) {
+            write(request, response, uiConfiguration, cacheControl);
+        } else if (SECURITY_CONFIGURATION_PATH.equals(path)) {
+            write(request, response, securityConfiguration, cacheControl);
+        } else {
+            write(request, response, resources().content, resourcesCacheControl);
+        }
+    }
+
+    private Resources resources() {
+        List<Object> version = resourcesProvider.version();
+        Resources current = resources;
+        if (current == null || !current.matches(version)) {
+            current = new Resources(version, serialize(resourcesProvider.get()));
+            resources = current;
+        }
+        return current;
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response,
+                       SwaggerApiDocs content, String cacheControl) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, content.getEtag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (SwaggerApiDocs.etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), content.getEtag())) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        ByteBuffer body = content.getContent();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(body.remaining());
+        response.getOutputStream().write(body.array(), body.arrayOffset() + body.position(), body.remaining());
+    }
+
+    private SwaggerApiDocs serialize(Object value) {
+        try {
+            return new SwaggerApiDocs(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 序列化后的 swagger-resources 及其对应的文档版本
+     */
+    private static class Resources {
+
+        private final List<Object> version;
+        private final SwaggerApiDocs content;
+
+        Resources(List<Object> version, SwaggerApiDocs content) {
+            this.version = version;
+            this.content = content;
+        }
+
+        boolean matches(List<Object> other) {
+            if (version.size() != other.size()) {
+                return false;
+            }
+            for (int i = 0; i < version.size(); i++) {
+                if (version.get(i) != other.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.spring4all.swagger;
+
+import com.google.common.base.Predicates;
+import springfox.documentation.service.SecurityReference;
+import springfox.documentation.spi.service.contexts.OperationContext;
+import springfox.documentation.spi.service.contexts.SecurityContext;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 由多条鉴权规则组成的 SecurityContext：每条规则的正则只编译一次，一次遍历所有规则得到路径需要的鉴权策略，
+ * 并按路径缓存结果。同一个实例可以在多个分组之间共享
+ */
+public class SwaggerSecurityContext extends SecurityContext {
+
+    private final List<Rule> rules;
+
+    private final Map<String, List<SecurityReference>> referencesByPath = new ConcurrentHashMap<>();
+
+    public SwaggerSecurityContext(List<Rule> rules) {
+        super(allReferences(rules), Predicates.<String>alwaysTrue(), Predicates.alwaysTrue());
+        this.rules = new ArrayList<>(rules);
+    }
+
+    @Override
+    public List<SecurityReference> securityForPath(String path) {
+        return referencesByPath.computeIfAbsent(path, this::evaluate);
+    }
+
+    @Override
+    public List<SecurityReference> securityForOperation(OperationContext operationContext) {
+        return securityForPath(operationContext.requestMappingPattern());
+    }
+
+    private List<SecurityReference> evaluate(String path) {
+        List<SecurityReference> references = null;
+        for (Rule rule : rules) {
+            if (rule.pattern.matcher(path).matches()) {
+                if (references == null) {
+                    references = new ArrayList<>();
+                }
+                references.addAll(rule.references);
+            }
+        }
+        return references == null ? Collections.emptyList() : Collections.unmodifiableList(references);
+    }
+
+    private static List<SecurityReference> allReferences(List<Rule> rules) {
+        List<SecurityReference> references = new ArrayList<>();
+        for (Rule rule : rules) {
+            references.addAll(rule.references);
+        }
+        return references;
+    }
+
+    /**
+     * 鉴权规则：路径匹配正则时需要的鉴权策略
+     */
+    public static class Rule {
+
+        private final Pattern pattern;
+        private final List<SecurityReference> references;
+
+        public Rule(String regex, List<SecurityReference> references) {
+            this.pattern = Pattern.compile(regex);
+            this.references = references;
+        }
+    }
+}
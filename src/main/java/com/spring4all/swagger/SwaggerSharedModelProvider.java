@@ -0,0 +1,179 @@
+package com.spring4all.swagger;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.MapMaker;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import springfox.documentation.schema.DefaultModelProvider;
+import springfox.documentation.schema.Model;
+import springfox.documentation.spi.schema.contexts.ModelContext;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 跨分组共享的模型注册表。
+ * <p>
+ * springfox的模型缓存以分组名称作为key的一部分，多个分组引用相同的DTO时会各自解析并持有一份模型。
+ * 这里代理springfox的 {@link DefaultModelProvider}，对由本starter创建、ignoredParameterTypes相同的分组，
+ * 相同的类型只解析一次；解析结果按模型名称驻留，内容相同的模型在所有分组的文档中是同一个对象。
+ * <p>
+ * 分组被重新扫描或移出缓存时，由 {@link SwaggerDocumentationScanner} 调用 {@link #evict(String)} 清除分组作用域下的模型，
+ * 驻留表只弱引用模型，不再被任何文档或缓存引用的模型可以被回收。
+ */
+public class SwaggerSharedModelProvider implements BeanPostProcessor, BeanFactoryAware {
+
+    private BeanFactory beanFactory;
+
+    private volatile SwaggerProperties swaggerProperties;
+
+    /**
+     * 按作用域与类型缓存的模型
+     */
+    private final Map<List<Object>, Optional<Model>> models = new ConcurrentHashMap<>();
+
+    /**
+     * 按作用域与类型缓存的依赖模型
+     */
+    private final Map<List<Object>, Map<String, Model>> dependencies = new ConcurrentHashMap<>();
+
+    /**
+     * 按名称驻留的模型，弱引用
+     */
+    private final Map<List<Object>, Model> internedModels = new MapMaker().weakValues().makeMap();
+
+    /**
+     * 清除分组作用域下缓存的模型。ignoredParameterTypes 相同的分组共用一个作用域，这些分组下次扫描时重新解析
+     *
+     * @param groupName 分组名称
+     */
+    public void evict(String groupName) {
+        Object scope = scope(groupName);
+        models.keySet().removeIf(key -> scope.equals(key.get(0)));
+        dependencies.keySet().removeIf(key -> scope.equals(key.get(0)));
+    }
+
+    /**
+     * 清除所有缓存的模型
+     */
+    public void clear() {
+        models.clear();
+        dependencies.clear();
+        internedModels.clear();
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!(bean instanceof DefaultModelProvider)) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) this::invoke);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        if (arguments.length != 1 || !(arguments[0] instanceof ModelContext)) {
+            return invocation.proceed();
+        }
+        ModelContext context = (ModelContext) arguments[0];
+        String methodName = invocation.getMethod().getName();
+        if ("modelFor".equals(methodName)) {
+            List<Object> key = key(context);
+            Optional<Model> model = models.get(key);
+            if (model == null) {
+                model = intern((Optional<Model>) invocation.proceed(), context);
+                Optional<Model> existing = models.putIfAbsent(key, model);
+                model = existing == null ? model : existing;
+            }
+            return model;
+        }
+        if ("dependencies".equals(methodName)) {
+            List<Object> key = key(context);
+            Map<String, Model> models = dependencies.get(key);
+            if (models == null) {
+                models = intern((Map<String, Model>) invocation.proceed(), context);
+                Map<String, Model> existing = dependencies.putIfAbsent(key, models);
+                models = existing == null ? models : existing;
+            }
+            // 调用方可能修改返回的集合
+            return new HashMap<>(models);
+        }
+        return invocation.proceed();
+    }
+
+    private List<Object> key(ModelContext context) {
+        return Arrays.asList(scope(context.getGroupName()), context.getType(), context.isReturnType(),
+                context.getDocumentationType());
+    }
+
+    /**
+     * 影响模型解析结果的分组配置。由本starter创建的分组只有 ignoredParameterTypes 不同，其他 Docket 不共享
+     */
+    private Object scope(String groupName) {
+        SwaggerProperties properties = swaggerProperties();
+        if (properties.getDocket().isEmpty()) {
+            if (Docket.DEFAULT_GROUP_NAME.equals(groupName)) {
+                return new HashSet<>(properties.getIgnoredParameterTypes());
+            }
+            return groupName;
+        }
+        SwaggerProperties.DocketInfo docketInfo = properties.getDocket().get(groupName);
+        if (docketInfo == null) {
+            return groupName;
+        }
+        return new HashSet<>(docketInfo.getIgnoredParameterTypes());
+    }
+
+    private Optional<Model> intern(Optional<Model> model, ModelContext context) {
+        return model.isPresent() ? Optional.of(intern(model.get(), context)) : model;
+    }
+
+    private Map<String, Model> intern(Map<String, Model> models, ModelContext context) {
+        Map<String, Model> interned = new HashMap<>(models.size() * 2);
+        for (Map.Entry<String, Model> entry : models.entrySet()) {
+            interned.put(entry.getKey(), intern(entry.getValue(), context));
+        }
+        return interned;
+    }
+
+    /**
+     * 名称与内容都相同的模型复用同一个对象，名称相同但内容不同时保留各自的模型
+     */
+    private Model intern(Model model, ModelContext context) {
+        List<Object> key = Arrays.asList(context.getDocumentationType(), context.isReturnType(), model.getName());
+        Model existing = internedModels.putIfAbsent(key, model);
+        return existing != null && existing.equals(model) ? existing : model;
+    }
+
+    /**
+     * 延迟获取，避免 BeanPostProcessor 过早初始化其他bean
+     */
+    private SwaggerProperties swaggerProperties() {
+        SwaggerProperties properties = swaggerProperties;
+        if (properties == null) {
+            properties = beanFactory.getBean(SwaggerProperties.class);
+            swaggerProperties = properties;
+        }
+        return properties;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = beanFactory;
+    }
+}
@@ -0,0 +1,153 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.ServletContext;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 将所有分组的api-docs导出到目录中，供 prebuilt 模式在运行时直接从classpath加载。
+ * 由 swagger-spring-boot-maven-plugin 在构建时调用。
+ */
+public class SwaggerSpecExporter {
+
+    /**
+     * 分组索引文件名
+     */
+    public static final String INDEX_FILE = "index.json";
+
+    /**
+     * 分组文档文件后缀
+     */
+    public static final String SPEC_SUFFIX = ".json";
+
+    /**
+     * gzip压缩后的分组文档文件后缀
+     */
+    public static final String GZIP_SUFFIX = ".gz";
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final ApplicationContext applicationContext;
+
+    public SwaggerSpecExporter(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * 导出所有分组的文档
+     *
+     * @param outputDirectory 输出目录
+     * @return 导出的分组
+     * @throws IOException 写文件失败
+     */
+    public List<String> export(File outputDirectory) throws IOException {
+        return export(outputDirectory, false);
+    }
+
+    /**
+     * 导出所有分组的文档
+     *
+     * @param outputDirectory 输出目录
+     * @param gzip            是否同时输出gzip压缩后的文档，文件名为 {分组}.json.gz
+     * @return 导出的分组
+     * @throws IOException 写文件失败
+     */
+    public List<String> export(File outputDirectory, boolean gzip) throws IOException {
+        SwaggerDocumentationScanner scanner = applicationContext.getBean(SwaggerDocumentationScanner.class);
+        SwaggerApiDocsCache apiDocsCache = applicationContext.getBean(SwaggerApiDocsCache.class);
+        String contextPath = applicationContext.getBean(ServletContext.class).getContextPath();
+        String basePath = StringUtils.isEmpty(contextPath) ? "/" : contextPath;
+
+        Files.createDirectories(outputDirectory.toPath());
+        List<String> groupNames = new ArrayList<>();
+        for (String groupName : scanner.getGroupNames()) {
+            scanner.ensureScanned(groupName);
+            SwaggerApiDocs apiDocs = apiDocsCache.export(groupName, basePath);
+            if (apiDocs == null) {
+                continue;
+            }
+            write(apiDocs, new File(outputDirectory, fileName(groupName) + SPEC_SUFFIX), false);
+            if (gzip) {
+                write(apiDocs, new File(outputDirectory, fileName(groupName) + SPEC_SUFFIX + GZIP_SUFFIX), true);
+            }
+            groupNames.add(groupName);
+        }
+        new ObjectMapper().writeValue(new File(outputDirectory, INDEX_FILE), groupNames);
+        return groupNames;
+    }
+
+    /**
+     * 分组文档的文件名（不含后缀）：字母、数字与 - _ . 以外的字符按UTF-8编码为 %XX，
+     * 分组名称中的路径分隔符、冒号等字符不会产生子目录或非法的文件名
+     *
+     * @param groupName 分组名称
+     * @return 文件名
+     */
+    public static String fileName(String groupName) {
+        StringBuilder builder = new StringBuilder(groupName.length());
+        for (byte b : groupName.getBytes(StandardCharsets.UTF_8)) {
+            if ((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+                    || b == '-' || b == '_' || b == '.') {
+                builder.append((char) b);
+            } else {
+                builder.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void write(SwaggerApiDocs apiDocs, File file, boolean gzip) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            apiDocs.writeTo(channel, gzip);
+        }
+    }
+
+    /**
+     * 启动应用并导出文档
+     *
+     * @param args 第一个参数为应用主类，第二个参数为输出目录，其余参数传递给应用
+     * @throws Exception 启动或导出失败
+     */
+    public static void main(String[] args) throws Exception {
+        try (ConfigurableApplicationContext context = run("SwaggerSpecExporter", args)) {
+            new SwaggerSpecExporter(context).export(new File(args[1]));
+        }
+    }
+
+    /**
+     * 以随机端口、lazy 模式启动用于导出文档的应用
+     *
+     * @param exporter 导出工具名称，用于参数错误时的提示
+     * @param args     第一个参数为应用主类，第二个参数为输出目录，其余参数传递给应用
+     * @return 应用上下文
+     * @throws Exception 启动失败
+     */
+    static ConfigurableApplicationContext run(String exporter, String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: " + exporter + " <mainClass> <outputDirectory> [args...]");
+        }
+        Class<?> mainClass = ClassUtils.forName(args[0], Thread.currentThread().getContextClassLoader());
+        List<String> applicationArgs = new ArrayList<>(Arrays.asList(args).subList(2, args.length));
+        applicationArgs.add("--server.port=0");
+        applicationArgs.add("--swagger.enabled=true");
+        applicationArgs.add("--swagger.scan-mode=lazy");
+        applicationArgs.add("--swagger.snapshot.enabled=false");
+
+        return new SpringApplicationBuilder(mainClass).run(applicationArgs.toArray(new String[0]));
+    }
+}
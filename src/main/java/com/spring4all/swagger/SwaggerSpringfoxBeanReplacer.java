@@ -0,0 +1,30 @@
+package com.spring4all.swagger;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.readers.operation.CachingOperationNameGenerator;
+
+/**
+ * 在springfox的bean被注入之前替换为线程安全的实现：
+ * {@link CachingOperationNameGenerator} 替换为按分组计数的 {@link SwaggerOperationNameGenerator}，
+ * {@link DocumentationCache} 替换为写入时复制的 {@link SwaggerDocumentationCache}
+ */
+public class SwaggerSpringfoxBeanReplacer implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (bean.getClass() == CachingOperationNameGenerator.class) {
+            return new SwaggerOperationNameGenerator();
+        }
+        if (bean.getClass() == DocumentationCache.class) {
+            return new SwaggerDocumentationCache();
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+}
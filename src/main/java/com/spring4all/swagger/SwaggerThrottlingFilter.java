@@ -0,0 +1,198 @@
+package com.spring4all.swagger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 文档请求限流过滤器：api-docs、swagger-resources、swagger-ui.html 与 webjars 资源同时最多处理 max-concurrent 个请求，
+ * 超出的请求通过Servlet异步挂起排队，排队期间不占用容器线程；队列已满或排队超时时返回429。
+ * 文档请求因此最多只会占用 max-concurrent 个容器线程，不会挤占业务请求
+ */
+@Slf4j
+public class SwaggerThrottlingFilter extends OncePerRequestFilter {
+
+    /**
+     * 排队的请求出队时已经为其获取了许可，重新分派时通过该属性传递对应的 {@link QueuedRequest}
+     */
+    private static final String PERMIT_ATTRIBUTE = SwaggerThrottlingFilter.class.getName() + ".PERMIT";
+
+    private final Semaphore permits;
+    private final BlockingQueue<QueuedRequest> queue;
+    private final long queueTimeout;
+    private final String retryAfter;
+    private final AntPathTrie documentationPaths;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public SwaggerThrottlingFilter(SwaggerProperties.Throttle throttle, String apiDocsPath) {
+        this.permits = new Semaphore(Math.max(throttle.getMaxConcurrent(), 1));
+        this.queue = throttle.getQueueSize() > 0 ? new ArrayBlockingQueue<>(throttle.getQueueSize()) : null;
+        this.queueTimeout = throttle.getQueueTimeout();
+        this.retryAfter = String.valueOf(throttle.getRetryAfter());
+        this.documentationPaths = new AntPathTrie(Arrays.asList(
+                apiDocsPath + "/**",
+                SwaggerResourcesFilter.RESOURCES_PATH + "/**",
+                "/swagger-ui.html",
+                "/webjars/springfox-swagger-ui/**"));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !documentationPaths.matches(urlPathHelper.getPathWithinApplication(request));
+    }
+
+    /**
+     * 排队的请求通过异步分派重新进入过滤器
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Object queued = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (queued != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            // 重新分派开始前请求超时或出错时许可已经被释放，按新的请求处理
+            if (((QueuedRequest) queued).claimPermit()) {
+                proceed(request, response, filterChain);
+                return;
+            }
+        }
+        if (permits.tryAcquire()) {
+            proceed(request, response, filterChain);
+            return;
+        }
+        if (queue == null || !request.isAsyncSupported()) {
+            reject(response);
+            return;
+        }
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(queueTimeout);
+        QueuedRequest queuedRequest = new QueuedRequest(asyncContext);
+        asyncContext.addListener(queuedRequest);
+        if (!queue.offer(queuedRequest)) {
+            reject(response);
+            asyncContext.complete();
+            return;
+        }
+        // 入队前其他请求可能已经释放了许可
+        drain();
+    }
+
+    private void proceed(HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+            drain();
+        }
+    }
+
+    /**
+     * 有空闲许可时依次取出排队的请求，重新分派到容器线程处理
+     */
+    private void drain() {
+        while (queue != null && !queue.isEmpty() && permits.tryAcquire()) {
+            QueuedRequest queued = queue.poll();
+            if (queued == null) {
+                permits.release();
+                return;
+            }
+            queued.permitHeld.set(true);
+            try {
+                queued.asyncContext.getRequest().setAttribute(PERMIT_ATTRIBUTE, queued);
+                queued.asyncContext.dispatch();
+            } catch (IllegalStateException e) {
+                // 请求在出队时恰好超时或已结束
+                log.debug("Swagger documentation request left the queue before dispatch", e);
+                if (queued.claimPermit()) {
+                    permits.release();
+                }
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    /**
+     * 排队的请求：排队超时的请求移出队列并返回429；已出队但重新分派尚未开始时超时、出错或结束的请求释放为其保留的许可
+     */
+    private class QueuedRequest implements AsyncListener {
+
+        private final AsyncContext asyncContext;
+
+        /**
+         * 出队时为请求获取了许可，重新分派开始或许可被释放后为false
+         */
+        private final AtomicBoolean permitHeld = new AtomicBoolean(false);
+
+        QueuedRequest(AsyncContext asyncContext) {
+            this.asyncContext = asyncContext;
+        }
+
+        /**
+         * 取得出队时保留的许可，只有重新分派与监听器中的一方能够取得
+         *
+         * @return 是否取得许可
+         */
+        boolean claimPermit() {
+            return permitHeld.compareAndSet(true, false);
+        }
+
+        private void releasePermit() {
+            if (claimPermit()) {
+                permits.release();
+                drain();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            if (queue.remove(this)) {
+                reject((HttpServletResponse) asyncContext.getResponse());
+                asyncContext.complete();
+                return;
+            }
+            releasePermit();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            queue.remove(this);
+            releasePermit();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            releasePermit();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.spring4all.swagger;
+
+import org.junit.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AntPathTrieTest {
+
+    private static final List<String> PATTERNS = Arrays.asList(
+            // 字面量
+            "/", "/users", "/users/", "/users/list", "/api/v1/users",
+            // *
+            "/*", "/*/", "/users/*", "/users/*/", "/*/list", "/users/*/orders", "/users/*.json", "/u*rs",
+            // ?
+            "/user?", "/users/?", "/users/??/orders",
+            // {var}
+            "/users/{id}", "/users/{id}/orders", "/users/{id:\\d+}", "/{version}/users",
+            // 结尾的 /**
+            "/**", "/users/**", "/users/*/**", "/api/v1/**",
+            // 中间的 **
+            "/**/orders", "/users/**/orders", "/**/*.json", "/api/**/users/**",
+            // 非独立分段的 **
+            "/users**", "/users/a**",
+            // 相对规则
+            "users", "users/*", "users/**", "*", "**");
+
+    private static final List<String> PATHS = Arrays.asList(
+            "", "/", "//", "users", "users/", "users/1", "users/1/orders",
+            "/users", "/users/", "/users//", "/users/list", "/users/list/", "/users/1", "/users/1/",
+            "/users/12", "/users/12/orders", "/users/12/orders/", "/users/ab/orders", "/users/abc/orders",
+            "/users/1/orders/2", "/users/1.json", "/users/a/b/orders", "/users/a/b/c", "/usersx", "/usersx/1",
+            "/userx", "/user", "/urs", "/uxrs", "/api", "/api/", "/api/v1", "/api/v1/", "/api/v1/users",
+            "/api/v1/users/", "/api/v2/users", "/api/x/users/1", "/api/x/y/users", "/v1/users", "/list",
+            "/x/list", "/x/list/", "/orders", "/a/b/orders", "/a.json", "/a/b.json", "/users//1", "/users/a1",
+            "/users/a");
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    @Test
+    public void singlePatternMatchesLikeAntPathMatcher() {
+        List<String> mismatches = new ArrayList<>();
+        for (String pattern : PATTERNS) {
+            AntPathTrie trie = new AntPathTrie(Collections.singletonList(pattern));
+            for (String path : PATHS) {
+                if (trie.matches(path) != antPathMatcher.match(pattern, path)) {
+                    mismatches.add(pattern + " -> " + path);
+                }
+            }
+        }
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    public void patternPairsMatchLikeAntPathMatcher() {
+        List<String> mismatches = new ArrayList<>();
+        for (String first : PATTERNS) {
+            for (String second : PATTERNS) {
+                AntPathTrie trie = new AntPathTrie(Arrays.asList(first, second));
+                for (String path : PATHS) {
+                    boolean expected = antPathMatcher.match(first, path) || antPathMatcher.match(second, path);
+                    if (trie.matches(path) != expected) {
+                        mismatches.add(first + ", " + second + " -> " + path);
+                    }
+                }
+            }
+        }
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    public void emptyTrieMatchesNothing() {
+        AntPathTrie trie = new AntPathTrie(Collections.emptyList());
+
+        for (String path : PATHS) {
+            assertThat(trie.matches(path)).as(path).isFalse();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.spring4all.swagger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerApiDocsStorageTest {
+
+    private final SwaggerApiDocsStorage storage = new SwaggerApiDocsStorage(SwaggerProperties.Storage.MAPPED, 0);
+
+    @After
+    public void destroy() {
+        storage.destroy();
+    }
+
+    @Test
+    public void identicalContentIsStoredInSeparateFiles() {
+        byte[] content = "{\"swagger\":\"2.0\"}".getBytes(StandardCharsets.UTF_8);
+        SwaggerApiDocs first = storage.store(content);
+        SwaggerApiDocs second = storage.store(content);
+
+        assertThat(first.getEtag()).isEqualTo(second.getEtag());
+        assertThat(first.getContentFile()).isNotEqualTo(second.getContentFile());
+        assertThat(first.getGzipContentFile()).isNotEqualTo(second.getGzipContentFile());
+
+        storage.release(first);
+
+        assertThat(first.getContentFile()).doesNotExist();
+        assertThat(first.getGzipContentFile()).doesNotExist();
+        assertThat(second.getContentFile()).exists();
+        assertThat(StandardCharsets.UTF_8.decode(second.getContent()).toString()).isEqualTo("{\"swagger\":\"2.0\"}");
+    }
+
+    @Test
+    public void evictedAndReplacedVariantsReleaseTheirFiles() {
+        try (SwaggerTestApplication application = new SwaggerTestApplication()) {
+            SwaggerApiDocsCache apiDocsCache = new SwaggerApiDocsCache(application.getBean(DocumentationCache.class),
+                    application.getBean(SwaggerApiDocsWriter.class), storage, new SwaggerDocumentationMetrics(), 2);
+
+            List<File> files = new ArrayList<>();
+            for (String host : new String[]{"a.example.com", "b.example.com", "c.example.com"}) {
+                files.add(apiDocsCache.get(Docket.DEFAULT_GROUP_NAME, request(host)).getContentFile());
+            }
+            // 模板对应的组合一直保留，超出 max-variants 的组合最早生成的被移除
+            assertThat(files.get(0)).exists();
+            assertThat(files.get(1)).doesNotExist();
+            assertThat(files.get(2)).exists();
+
+            apiDocsCache.evict(Docket.DEFAULT_GROUP_NAME);
+
+            assertThat(files.get(0)).doesNotExist();
+            assertThat(files.get(2)).doesNotExist();
+            assertThat(files.get(0).getParentFile().list()).isEmpty();
+        }
+    }
+
+    @Test
+    public void offHeapContentIsWrittenAsByteBufferWhenTheStreamSupportsIt() throws Exception {
+        byte[] content = "{\"swagger\":\"2.0\"}".getBytes(StandardCharsets.UTF_8);
+        SwaggerApiDocs apiDocs = new SwaggerApiDocsStorage(SwaggerProperties.Storage.DIRECT, 0).store(content);
+
+        BufferOutputStream buffered = new BufferOutputStream();
+        apiDocs.writeTo(buffered, false);
+        assertThat(buffered.directWrites).isEqualTo(1);
+        assertThat(buffered.toByteArray()).isEqualTo(content);
+
+        // 不支持 write(ByteBuffer) 的输出流通过channel写出
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        apiDocs.writeTo(plain, true);
+        assertThat(plain.toByteArray()).isEqualTo(SwaggerApiDocs.gzip(content));
+    }
+
+    /**
+     * 与容器的响应输出流一样提供 write(ByteBuffer)
+     */
+    public static class BufferOutputStream extends ByteArrayOutputStream {
+
+        private int directWrites;
+
+        public void write(ByteBuffer buffer) {
+            if (buffer.isDirect()) {
+                directWrites++;
+            }
+            while (buffer.hasRemaining()) {
+                write(buffer.get());
+            }
+        }
+    }
+
+    private static MockHttpServletRequest request(String host) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v2/api-docs");
+        request.addHeader("X-Forwarded-Host", host);
+        return request;
+    }
+}
@@ -0,0 +1,117 @@
+package com.spring4all.swagger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerApiDocsViewsTest {
+
+    private static SwaggerTestApplication application;
+
+    @BeforeClass
+    public static void start() {
+        application = new SwaggerTestApplication(Collections.singletonMap("swagger.cache.max-views", "2"));
+    }
+
+    @AfterClass
+    public static void stop() {
+        application.close();
+    }
+
+    @Test
+    public void filtersOperationsAndReferencedDefinitions() {
+        SwaggerApiDocsViews.View view = views().query(Docket.DEFAULT_GROUP_NAME, apiDocs(), query("/orders"));
+
+        String content = StandardCharsets.UTF_8.decode(view.getApiDocs().getContent()).toString();
+        assertThat(view.getTotal()).isEqualTo(2);
+        assertThat(content).contains("/orders/{id}", "\"Order\"", "\"User\"").doesNotContain("/users/{id}");
+    }
+
+    @Test
+    public void viewsAreCachedWithinTheBound() {
+        SwaggerApiDocsViews views = views();
+        SwaggerApiDocs apiDocs = apiDocs();
+        SwaggerApiDocsViews.View orders = views.query(Docket.DEFAULT_GROUP_NAME, apiDocs, query("/orders"));
+
+        assertThat(views.query(Docket.DEFAULT_GROUP_NAME, apiDocs, query("/orders"))).isSameAs(orders);
+
+        views.query(Docket.DEFAULT_GROUP_NAME, apiDocs, query("/users"));
+        views.query(Docket.DEFAULT_GROUP_NAME, apiDocs, query("/"));
+
+        assertThat(views.query(Docket.DEFAULT_GROUP_NAME, apiDocs, query("/orders"))).isNotSameAs(orders);
+    }
+
+    @Test
+    public void concurrentMissesShareOneView() throws Exception {
+        SwaggerApiDocsViews views = views();
+        SwaggerApiDocs apiDocs = apiDocs();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SwaggerApiDocsViews.View>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return views.query(Docket.DEFAULT_GROUP_NAME, apiDocs, query("/orders"));
+                }));
+            }
+            start.countDown();
+            SwaggerApiDocsViews.View first = results.get(0).get();
+            for (Future<SwaggerApiDocsViews.View> result : results) {
+                assertThat(result.get()).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(views.tagNames(Docket.DEFAULT_GROUP_NAME, apiDocs)).isNotEmpty();
+    }
+
+    @Test
+    public void documentationViewsAreRebuiltForNewDocumentation() {
+        SwaggerApiDocsViews views = views();
+        Documentation documentation = application.getBean(DocumentationCache.class)
+                .documentationByGroup(Docket.DEFAULT_GROUP_NAME);
+        SwaggerApiDocsWriter.Target target = new SwaggerApiDocsWriter.Target("docs.example.com", "/");
+        SwaggerApiDocsViews.View users = views.query(documentation, target, query("/users"));
+
+        assertThat(views.query(documentation, target, query("/users"))).isSameAs(users);
+
+        Documentation rescanned = new Documentation(documentation.getGroupName(), documentation.getBasePath(),
+                documentation.getTags(), documentation.getApiListings(), documentation.getResourceListing(),
+                new HashSet<>(documentation.getProduces()), new HashSet<>(documentation.getConsumes()),
+                documentation.getHost(), new HashSet<>(documentation.getSchemes()),
+                documentation.getVendorExtensions());
+        assertThat(views.query(rescanned, target, query("/users"))).isNotSameAs(users);
+    }
+
+    private static SwaggerApiDocsViews views() {
+        return new SwaggerApiDocsViews(application.getBean(SwaggerApiDocsWriter.class), 2);
+    }
+
+    private static SwaggerApiDocs apiDocs() {
+        return application.getBean(SwaggerApiDocsCache.class)
+                .get(Docket.DEFAULT_GROUP_NAME, new MockHttpServletRequest("GET", "/v2/api-docs"));
+    }
+
+    private static SwaggerApiDocsQuery query(String pathPrefix) {
+        SwaggerApiDocsQuery query = new SwaggerApiDocsQuery();
+        query.setPathPrefix(pathPrefix);
+        return query;
+    }
+}
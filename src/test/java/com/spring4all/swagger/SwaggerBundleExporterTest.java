@@ -0,0 +1,63 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.util.UriUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerBundleExporterTest {
+
+    private Path outputDirectory;
+
+    @Before
+    public void createOutputDirectory() throws IOException {
+        outputDirectory = Files.createTempDirectory("swagger-bundle-test");
+    }
+
+    @After
+    public void deleteOutputDirectory() {
+        FileSystemUtils.deleteRecursively(outputDirectory.toFile());
+    }
+
+    @Test
+    public void resourceUrlsResolveUnderACdnSubPath() throws IOException {
+        Map<String, Object> properties = SwaggerDocumentationScannerTest.groups();
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties)) {
+            new SwaggerBundleExporter(application.getContext()).export(outputDirectory.toFile());
+        }
+
+        assertThat(outputDirectory.resolve("swagger-ui.html")).exists();
+        String cdn = "https://cdn.example.com/docs/v1";
+        JsonNode resources = new ObjectMapper().readTree(
+                outputDirectory.resolve(SwaggerBundleExporter.RESOURCES_INDEX).toFile());
+        assertThat(resources).hasSize(4);
+        for (JsonNode resource : resources) {
+            // 与 springfox-swagger-ui 的处理一致：swagger-ui.html 所在目录（不含末尾的 /）拼接资源地址
+            URI resolved = URI.create(cdn + resource.path("url").asText());
+            assertThat(resolved.getPath()).startsWith("/docs/v1/" + SwaggerBundleExporter.API_DOCS_DIRECTORY + "/");
+
+            String relative = resolved.getPath().substring("/docs/v1/".length());
+            File file = outputDirectory.resolve(UriUtils.decode(relative, "UTF-8")).toFile();
+            assertThat(file).exists();
+        }
+    }
+
+    @Test
+    public void resourceUrlEncodesTheFileName() throws IOException {
+        assertThat(SwaggerBundleExporter.resourceUrl("users/v1 内部"))
+                .isEqualTo("/api-docs/users%252Fv1%2520%25E5%2586%2585%25E9%2583%25A8.json");
+        assertThat(SwaggerBundleExporter.resourceUrl("users")).isEqualTo("/api-docs/users.json");
+    }
+}
@@ -0,0 +1,135 @@
+package com.spring4all.swagger;
+
+import org.junit.Test;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SwaggerDocketRegistrarTest {
+
+    @Test
+    public void registersEnabledGroupsAndExposesThemAsCreateRestApi() {
+        Map<String, Object> properties = SwaggerDocumentationScannerTest.groups();
+        properties.put("swagger.docket.extra.enabled", "false");
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties)) {
+            assertThat(application.getContext().getBeanNamesForType(Docket.class))
+                    .containsOnly("users", "orders", "all");
+            assertThat(groupNames(application.getContext().getBean("createRestApi", List.class)))
+                    .containsOnly("users", "orders", "all");
+        }
+    }
+
+    @Test
+    public void registersDefaultDocketWithoutGroups() {
+        try (SwaggerTestApplication application = new SwaggerTestApplication()) {
+            assertThat(application.getContext().getBeanNamesForType(Docket.class)).containsOnly("defaultDocket");
+            assertThat(groupNames(application.getContext().getBean("createRestApi", List.class)))
+                    .containsExactly(Docket.DEFAULT_GROUP_NAME);
+        }
+    }
+
+    @Test
+    public void createRestApiIsOnlyCreatedWhenRequested() {
+        try (SwaggerTestApplication application = new SwaggerTestApplication(
+                SwaggerDocumentationScannerTest.groups())) {
+            ConfigurableListableBeanFactory beanFactory = application.getContext().getBeanFactory();
+            assertThat(beanFactory.getBeanDefinition("createRestApi").isLazyInit()).isTrue();
+            assertThat(beanFactory.containsSingleton("createRestApi")).isFalse();
+
+            assertThat(groupNames(beanFactory.getBean("createRestApi", List.class)))
+                    .containsOnly("users", "orders", "all", "extra");
+        }
+    }
+
+    @Test
+    public void docketFactoryUsesTheSwaggerPropertiesBean() {
+        try (SwaggerTestApplication application = new SwaggerTestApplication(
+                SwaggerDocumentationScannerTest.groups(), CustomPropertiesConfiguration.class)) {
+            assertThat(application.getContext().getBeanNamesForType(Docket.class))
+                    .containsOnly("users", "orders", "all", "extra");
+            assertThat(application.getBean(DocumentationCache.class).documentationByGroup("users").getHost())
+                    .isEqualTo("custom.example.com");
+        }
+    }
+
+    @Test
+    public void groupsMissingFromTheSwaggerPropertiesBeanFailStartup() {
+        assertThatThrownBy(() -> new SwaggerTestApplication(
+                SwaggerDocumentationScannerTest.groups(), MissingGroupsConfiguration.class))
+                .hasStackTraceContaining("missing from the SwaggerProperties bean");
+    }
+
+    @Test
+    public void customDocketListOnlyReplacesCreateRestApi() {
+        try (SwaggerTestApplication application = new SwaggerTestApplication(
+                Collections.emptyMap(), CustomDocketsConfiguration.class)) {
+            assertThat(application.getContext().containsBean("createRestApi")).isFalse();
+            assertThat(application.getContext().getBeanNamesForType(Docket.class)).containsOnly("defaultDocket");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> groupNames(List<?> dockets) {
+        return ((List<Docket>) dockets).stream().map(Docket::getGroupName).collect(Collectors.toList());
+    }
+
+    @Configuration
+    static class CustomPropertiesConfiguration {
+
+        @Bean
+        public SwaggerProperties swaggerProperties() {
+            return new CustomSwaggerProperties();
+        }
+    }
+
+    /**
+     * 绑定配置后修改host
+     */
+    static class CustomSwaggerProperties extends SwaggerProperties implements InitializingBean {
+
+        @Override
+        public void afterPropertiesSet() {
+            setHost("custom.example.com");
+        }
+    }
+
+    @Configuration
+    static class MissingGroupsConfiguration {
+
+        @Bean
+        public SwaggerProperties swaggerProperties() {
+            return new MissingGroupsSwaggerProperties();
+        }
+    }
+
+    /**
+     * 绑定配置后移除所有分组
+     */
+    static class MissingGroupsSwaggerProperties extends SwaggerProperties implements InitializingBean {
+
+        @Override
+        public void afterPropertiesSet() {
+            getDocket().clear();
+        }
+    }
+
+    @Configuration
+    static class CustomDocketsConfiguration {
+
+        @Bean
+        public List<Docket> customDockets() {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.spring4all.swagger;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerDocumentationEvictorTest {
+
+    @Test
+    public void limitsAreEnforcedWhenAGroupIsScanned() throws Exception {
+        Map<String, Object> properties = SwaggerDocumentationScannerTest.groups();
+        properties.put("swagger.scan-mode", "lazy");
+        properties.put("swagger.cache.max-entries", "1");
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties)) {
+            SwaggerDocumentationScanner scanner = application.getBean(SwaggerDocumentationScanner.class);
+
+            application.perform("swaggerDocumentationFilter", apiDocs("users"));
+            application.perform("swaggerDocumentationFilter", apiDocs("users"));
+            assertThat(scanner.getScannedGroups()).containsOnly("users");
+
+            application.perform("swaggerDocumentationFilter", apiDocs("orders"));
+            assertThat(scanner.getScannedGroups()).containsOnly("orders");
+            assertThat(application.getBean(SwaggerApiDocsCache.class).retainedBytes("users")).isZero();
+        }
+    }
+
+    @Test
+    public void accessIsOnlyRecordedForScannedGroups() throws Exception {
+        Map<String, Object> properties = SwaggerDocumentationScannerTest.groups();
+        properties.put("swagger.scan-mode", "lazy");
+        properties.put("swagger.cache.max-entries", "1");
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties)) {
+            SwaggerDocumentationEvictor evictor = application.getBean(SwaggerDocumentationEvictor.class);
+
+            for (int i = 0; i < 10; i++) {
+                application.perform("swaggerDocumentationFilter", apiDocs("unknown-" + i));
+            }
+            assertThat(evictor.accessedGroups()).isEmpty();
+
+            application.perform("swaggerDocumentationFilter", apiDocs("users"));
+            assertThat(evictor.accessedGroups()).containsOnly("users");
+
+            application.perform("swaggerDocumentationFilter", apiDocs("orders"));
+            assertThat(evictor.accessedGroups()).containsOnly("orders");
+        }
+    }
+
+    private static MockHttpServletRequest apiDocs(String groupName) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v2/api-docs");
+        request.setParameter("group", groupName);
+        return request;
+    }
+}
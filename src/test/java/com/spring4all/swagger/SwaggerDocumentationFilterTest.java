@@ -0,0 +1,143 @@
+package com.spring4all.swagger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerDocumentationFilterTest {
+
+    private static final String FILTER = "swaggerDocumentationFilter";
+
+    private static SwaggerTestApplication application;
+
+    @BeforeClass
+    public static void start() {
+        application = new SwaggerTestApplication(Collections.singletonMap("swagger.cache.max-variants", "2"));
+    }
+
+    @AfterClass
+    public static void stop() {
+        application.close();
+    }
+
+    @Test
+    public void servesCachedApiDocsWithEtag() throws Exception {
+        MockHttpServletResponse response = application.perform(FILTER, apiDocs("docs.example.com", null));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("ETag")).matches("\"[0-9a-f]{32}\"");
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).contains("\"host\":\"docs.example.com\"", "/users/{id}");
+    }
+
+    @Test
+    public void renderedVariantMatchesFullSerialization() throws Exception {
+        Documentation documentation = application.getBean(DocumentationCache.class)
+                .documentationByGroup(Docket.DEFAULT_GROUP_NAME);
+        SwaggerApiDocsWriter writer = application.getBean(SwaggerApiDocsWriter.class);
+
+        for (String host : new String[]{"a.example.com", "a-much-longer-host.example.com:8443", "b\"quoted"}) {
+            MockHttpServletRequest request = apiDocs(host, null);
+            byte[] expected = writer.toBytes(writer.map(documentation, writer.target(documentation, request)));
+
+            assertThat(application.perform(FILTER, request).getContentAsByteArray()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void gzipHasItsOwnEtag() throws Exception {
+        MockHttpServletResponse plain = application.perform(FILTER, apiDocs("etag.example.com", null));
+        MockHttpServletResponse gzip = application.perform(FILTER, apiDocs("etag.example.com", "gzip, deflate"));
+
+        assertThat(gzip.getHeader("Content-Encoding")).isEqualTo("gzip");
+        String etag = plain.getHeader("ETag");
+        assertThat(gzip.getHeader("ETag")).isEqualTo(etag.substring(0, etag.length() - 1) + "-gzip\"");
+        assertThat(gzip.getHeader("Vary")).isEqualTo("Accept-Encoding");
+
+        MockHttpServletRequest revalidatePlain = apiDocs("etag.example.com", "gzip");
+        revalidatePlain.addHeader("If-None-Match", plain.getHeader("ETag"));
+        assertThat(application.perform(FILTER, revalidatePlain).getStatus()).isEqualTo(200);
+
+        MockHttpServletRequest revalidateGzip = apiDocs("etag.example.com", "gzip");
+        revalidateGzip.addHeader("If-None-Match", "\"other\", W/" + gzip.getHeader("ETag"));
+        assertThat(application.perform(FILTER, revalidateGzip).getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    public void gzipWithZeroQualityIsNotAccepted() throws Exception {
+        assertThat(application.perform(FILTER, apiDocs("q.example.com", "gzip;q=0, identity"))
+                .getHeader("Content-Encoding")).isNull();
+        assertThat(application.perform(FILTER, apiDocs("q.example.com", "*;q=0.5"))
+                .getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(application.perform(FILTER, apiDocs("q.example.com", "*, gzip;q=0"))
+                .getHeader("Content-Encoding")).isNull();
+    }
+
+    @Test
+    public void acceptsGzip() {
+        assertThat(SwaggerApiDocs.acceptsGzip(null)).isFalse();
+        assertThat(SwaggerApiDocs.acceptsGzip("gzip")).isTrue();
+        assertThat(SwaggerApiDocs.acceptsGzip("deflate, GZIP;q=0.8")).isTrue();
+        assertThat(SwaggerApiDocs.acceptsGzip("x-gzip")).isTrue();
+        assertThat(SwaggerApiDocs.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(SwaggerApiDocs.acceptsGzip("gzip; q=0.0")).isFalse();
+        assertThat(SwaggerApiDocs.acceptsGzip("br, deflate")).isFalse();
+        assertThat(SwaggerApiDocs.acceptsGzip("gzip;q=abc")).isFalse();
+    }
+
+    @Test
+    public void hostVariantsAreBounded() throws Exception {
+        SwaggerApiDocsCache apiDocsCache = application.getBean(SwaggerApiDocsCache.class);
+        application.perform(FILTER, apiDocs("h00.example.com", null));
+        application.perform(FILTER, apiDocs("h01.example.com", null));
+        long retained = apiDocsCache.retainedBytes(Docket.DEFAULT_GROUP_NAME);
+
+        for (int i = 2; i < 50; i++) {
+            MockHttpServletResponse response = application.perform(FILTER,
+                    apiDocs(String.format("h%02d.example.com", i), null));
+            assertThat(response.getContentAsString()).contains(String.format("\"host\":\"h%02d.example.com\"", i));
+        }
+
+        assertThat(apiDocsCache.retainedBytes(Docket.DEFAULT_GROUP_NAME)).isLessThanOrEqualTo(retained + 64);
+    }
+
+    @Test
+    public void streamedApiDocsMatchFullSerialization() throws Exception {
+        Map<String, Object> properties = SwaggerDocumentationScannerTest.groups();
+        properties.put("swagger.docket.all.streaming", "true");
+        try (SwaggerTestApplication streaming = new SwaggerTestApplication(properties)) {
+            Documentation documentation = streaming.getBean(DocumentationCache.class).documentationByGroup("all");
+            SwaggerApiDocsWriter writer = streaming.getBean(SwaggerApiDocsWriter.class);
+            MockHttpServletRequest request = apiDocs("stream.example.com", null);
+            request.setParameter("group", "all");
+            byte[] expected = writer.toBytes(writer.map(documentation, writer.target(documentation, request)));
+
+            MockHttpServletResponse response = streaming.perform(FILTER, request);
+
+            assertThat(response.getHeader("ETag")).isNull();
+            ObjectMapper objectMapper = new ObjectMapper();
+            assertThat(objectMapper.readTree(response.getContentAsByteArray()))
+                    .isEqualTo(objectMapper.readTree(expected));
+        }
+    }
+
+    private static MockHttpServletRequest apiDocs(String host, String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v2/api-docs");
+        request.addHeader("X-Forwarded-Host", host);
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,36 @@
+package com.spring4all.swagger;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerDocumentationFingerprintsTest {
+
+    @Test
+    public void fingerprintsAreRecordedWhenGroupsAreScannedAndKeptAfterEviction() {
+        Map<String, Object> properties = SwaggerDocumentationScannerTest.groups();
+        properties.put("swagger.scan-mode", "lazy");
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties)) {
+            SwaggerDocumentationScanner scanner = application.getBean(SwaggerDocumentationScanner.class);
+            SwaggerDocumentationFingerprints fingerprints = application.getBean(SwaggerDocumentationFingerprints.class);
+            assertThat(fingerprints.fingerprints()).isEmpty();
+
+            scanner.ensureScanned("orders");
+            String etag = application.getBean(SwaggerApiDocsCache.class).export("orders", "/").getEtag();
+            assertThat(fingerprints.fingerprints())
+                    .containsOnlyKeys("orders")
+                    .containsEntry("orders", etag.substring(1, etag.length() - 1));
+
+            scanner.evict("orders");
+            assertThat(fingerprints.fingerprints()).containsOnlyKeys("orders");
+
+            String fingerprint = fingerprints.fingerprints().get("orders");
+            scanner.ensureScanned("orders");
+            SwaggerDocumentationFingerprints.Diff diff = fingerprints.diff("orders", fingerprint);
+            assertThat(diff.getTo()).isEqualTo(fingerprint);
+            assertThat(diff.getPaths().getChanged()).isEmpty();
+        }
+    }
+}
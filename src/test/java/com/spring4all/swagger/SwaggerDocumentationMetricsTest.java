@@ -0,0 +1,80 @@
+package com.spring4all.swagger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerDocumentationMetricsTest {
+
+    private final SwaggerDocumentationMetrics metrics = new SwaggerDocumentationMetrics();
+
+    @Test
+    public void unknownGroupHasEmptySnapshot() {
+        SwaggerDocumentationMetrics.Snapshot snapshot = metrics.snapshot("missing");
+
+        assertThat(snapshot.getGroupName()).isEqualTo("missing");
+        assertThat(snapshot.getScanMillis()).isZero();
+        assertThat(metrics.snapshots()).isEmpty();
+    }
+
+    @Test
+    public void modelResolutionAccumulatesUntilNextScan() {
+        metrics.addModelResolution("user", TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.addModelResolution("user", TimeUnit.MILLISECONDS.toNanos(4));
+        assertThat(metrics.snapshot("user").getModelResolutionMillis()).isEqualTo(7);
+
+        metrics.scanStarted("user");
+        assertThat(metrics.snapshot("user").getModelResolutionMillis()).isZero();
+    }
+
+    @Test
+    public void failedScanKeepsTimingsOnly() {
+        metrics.recordScan("user", TimeUnit.MILLISECONDS.toNanos(12), 5, null);
+
+        SwaggerDocumentationMetrics.Snapshot snapshot = metrics.snapshot("user");
+        assertThat(snapshot.getScanMillis()).isEqualTo(12);
+        assertThat(snapshot.getHandlers()).isEqualTo(5);
+        assertThat(snapshot.getOperations()).isZero();
+    }
+
+    @Test
+    public void scannedGroupsAreRecordedAndExposedAsMeters() throws Exception {
+        Map<String, Object> properties = SwaggerDocumentationScannerTest.groups();
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties)) {
+            SwaggerDocumentationMetrics metrics = application.getBean(SwaggerDocumentationMetrics.class);
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v2/api-docs");
+            request.setParameter("group", "users");
+            application.perform("swaggerDocumentationFilter", request);
+
+            SwaggerDocumentationMetrics.Snapshot users = metrics.snapshot("users");
+            assertThat(users.getHandlers()).isEqualTo(2);
+            assertThat(users.getOperations()).isEqualTo(2);
+            assertThat(users.getModels()).isEqualTo(1);
+            assertThat(users.getCachedBytes()).isPositive();
+            assertThat(metrics.snapshots()).extracting("groupName").containsExactly("all", "extra", "orders", "users");
+
+            MeterRegistry registry = new SimpleMeterRegistry();
+            new SwaggerMetricsBinder(metrics, application.getBean(SwaggerDocumentationScanner.class)).bindTo(registry);
+            assertThat(registry.get("swagger.docs.operations").tag("group", "users").gauge().value()).isEqualTo(2);
+            assertThat(registry.get("swagger.docs.cache.size").tag("group", "users").gauge().value())
+                    .isEqualTo(users.getCachedBytes());
+            assertThat(registry.get("swagger.docs.scan.time").tag("group", "orders").timeGauge()).isNotNull();
+        }
+    }
+
+    @Test
+    public void snapshotsAreSortedByGroupName() {
+        metrics.recordCachedBytes("order", 10);
+        metrics.recordCachedBytes("account", 20);
+        metrics.recordDisabledGroup("internal");
+
+        assertThat(metrics.snapshots()).extracting("groupName").containsExactly("account", "order");
+        assertThat(metrics.getDisabledGroups()).containsExactly("internal");
+    }
+}
@@ -0,0 +1,113 @@
+package com.spring4all.swagger;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import springfox.documentation.spi.service.contexts.DocumentationContext;
+import springfox.documentation.spring.web.scanners.ApiDocumentationScanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerDocumentationScannerConcurrencyTest {
+
+    private static final Map<String, AtomicInteger> SCANS = new ConcurrentHashMap<>();
+
+    @Test
+    public void concurrentRequestsScanEachGroupOnce() throws Exception {
+        SCANS.clear();
+        Map<String, Object> properties = SwaggerDocumentationScannerTest.groups();
+        properties.put("swagger.scan-mode", "lazy");
+        properties.put("swagger.scan-threads", "4");
+        List<String> groupNames = new ArrayList<>();
+
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties, CountingConfiguration.class)) {
+            SwaggerDocumentationScanner scanner = application.getBean(SwaggerDocumentationScanner.class);
+            groupNames.addAll(scanner.getGroupNames());
+            assertThat(scanner.getScannedGroups()).isEmpty();
+
+            int threads = 16;
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    String groupName = i % 2 == 0 ? null : groupNames.get(i / 2 % groupNames.size());
+                    futures.add(executor.submit(() -> {
+                        ready.countDown();
+                        start.await();
+                        if (groupName == null) {
+                            scanner.ensureAllScanned();
+                        } else {
+                            scanner.ensureScanned(groupName);
+                        }
+                        return null;
+                    }));
+                }
+                assertThat(ready.await(10, TimeUnit.SECONDS)).isTrue();
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(scanner.getScannedGroups()).hasSameSizeAs(groupNames).containsOnlyElementsOf(groupNames);
+        }
+
+        assertThat(SCANS.keySet()).hasSameSizeAs(groupNames).containsOnlyElementsOf(groupNames);
+        for (Map.Entry<String, AtomicInteger> scans : SCANS.entrySet()) {
+            assertThat(scans.getValue().get()).as(scans.getKey()).isEqualTo(1);
+        }
+    }
+
+    /**
+     * 统计每个分组的扫描次数，并放慢扫描让并发的请求重叠
+     */
+    @Configuration
+    static class CountingConfiguration {
+
+        @Bean
+        public static BeanPostProcessor countingApiDocumentationScanner() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    return bean;
+                }
+
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof ApiDocumentationScanner)) {
+                        return bean;
+                    }
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.setProxyTargetClass(true);
+                    proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                        if ("scan".equals(invocation.getMethod().getName())) {
+                            DocumentationContext context = (DocumentationContext) invocation.getArguments()[0];
+                            SCANS.computeIfAbsent(context.getGroupName(), group -> new AtomicInteger()).incrementAndGet();
+                            Thread.sleep(50);
+                        }
+                        return invocation.proceed();
+                    });
+                    return proxyFactory.getProxy();
+                }
+            };
+        }
+    }
+}
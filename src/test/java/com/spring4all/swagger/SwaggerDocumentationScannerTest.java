@@ -0,0 +1,204 @@
+package com.spring4all.swagger;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import springfox.documentation.spi.service.contexts.DocumentationContext;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.scanners.ApiDocumentationScanner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerDocumentationScannerTest {
+
+    private static final AtomicInteger FAILURES = new AtomicInteger();
+
+    @Test
+    public void parallelScansProduceIdenticalApiDocs() {
+        Map<String, String> parallel = scan(2);
+
+        for (int run = 0; run < 3; run++) {
+            assertThat(scan(4)).isEqualTo(parallel);
+        }
+    }
+
+    @Test
+    public void serialScanKeepsSpringfoxOperationIds() {
+        // 与springfox默认的扫描一致：分组按名称排序，operationId 在所有分组之间全局计数
+        Map<String, String> apiDocs = scan(1);
+
+        assertThat(operationIds(apiDocs.get("all")))
+                .containsExactly("listUsingGET", "getUsingGET", "listUsingGET_1", "getUsingGET_1");
+        assertThat(operationIds(apiDocs.get("extra")))
+                .containsExactly("listUsingGET_2", "getUsingGET_2", "listUsingGET_3", "getUsingGET_3");
+        assertThat(operationIds(apiDocs.get("orders"))).containsExactly("listUsingGET_4", "getUsingGET_4");
+        assertThat(operationIds(apiDocs.get("users"))).containsExactly("listUsingGET_5", "getUsingGET_5");
+    }
+
+    @Test
+    public void operationIdsAreUniquePerGroup() {
+        Map<String, String> apiDocs = scan(4);
+
+        assertThat(apiDocs.get("all")).contains("\"operationId\":\"listUsingGET\"", "\"operationId\":\"listUsingGET_1\"");
+        assertThat(apiDocs.get("users")).contains("\"operationId\":\"listUsingGET\"")
+                .doesNotContain("listUsingGET_1");
+        assertThat(apiDocs.get("orders")).contains("\"operationId\":\"listUsingGET\"")
+                .doesNotContain("listUsingGET_1");
+    }
+
+    @Test
+    public void evictRemovesOnlyTheEvictedGroup() {
+        try (SwaggerTestApplication application = new SwaggerTestApplication(groups())) {
+            SwaggerDocumentationScanner scanner = application.getBean(SwaggerDocumentationScanner.class);
+            DocumentationCache documentationCache = application.getBean(DocumentationCache.class);
+            SwaggerApiDocsCache apiDocsCache = application.getBean(SwaggerApiDocsCache.class);
+            Documentation orders = documentationCache.documentationByGroup("orders");
+            String apiDocs = StandardCharsets.UTF_8.decode(apiDocsCache.export("all", "/").getContent()).toString();
+
+            assertThat(scanner.evict("all")).isTrue();
+
+            assertThat(documentationCache.all()).doesNotContainKey("all");
+            assertThat(documentationCache.documentationByGroup("orders")).isSameAs(orders);
+            assertThat(scanner.getScannedGroups()).doesNotContain("all").contains("orders");
+
+            // 重新扫描的分组从第一次扫描前的 operationId 计数开始，结果与第一次扫描一致
+            for (int run = 0; run < 3; run++) {
+                scanner.ensureScanned("all");
+                assertThat(StandardCharsets.UTF_8.decode(apiDocsCache.export("all", "/").getContent()).toString())
+                        .isEqualTo(apiDocs);
+                scanner.evict("all");
+            }
+        }
+    }
+
+    @Test
+    public void lazyModeScansAGroupOnFirstRequest() throws Exception {
+        Map<String, Object> properties = groups();
+        properties.put("swagger.scan-mode", "lazy");
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties)) {
+            SwaggerDocumentationScanner scanner = application.getBean(SwaggerDocumentationScanner.class);
+            DocumentationCache documentationCache = application.getBean(DocumentationCache.class);
+            assertThat(scanner.getScannedGroups()).isEmpty();
+            assertThat(documentationCache.all()).isEmpty();
+
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v2/api-docs");
+            request.setParameter("group", "users");
+            MockHttpServletResponse response = application.perform("swaggerDocumentationFilter", request);
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getContentAsString()).contains("/users/{id}").doesNotContain("/orders");
+            assertThat(scanner.getScannedGroups()).containsOnly("users");
+
+            // 之后的请求使用缓存的文档，不再重新扫描
+            Documentation users = documentationCache.documentationByGroup("users");
+            assertThat(application.perform("swaggerDocumentationFilter", request).getStatus()).isEqualTo(200);
+            assertThat(documentationCache.documentationByGroup("users")).isSameAs(users);
+        }
+    }
+
+    @Test
+    public void failedScanIsRetried() {
+        Map<String, Object> properties = groups();
+        properties.put("swagger.scan-mode", "lazy");
+        FAILURES.set(1);
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties, FailingConfiguration.class)) {
+            SwaggerDocumentationScanner scanner = application.getBean(SwaggerDocumentationScanner.class);
+
+            scanner.ensureScanned("orders");
+            assertThat(scanner.getScannedGroups()).doesNotContain("orders");
+            assertThat(application.getBean(DocumentationCache.class).documentationByGroup("orders")).isNull();
+
+            scanner.ensureScanned("orders");
+            assertThat(scanner.getScannedGroups()).contains("orders");
+            assertThat(application.getBean(DocumentationCache.class).documentationByGroup("orders")).isNotNull();
+        }
+    }
+
+    /**
+     * api-docs中按出现顺序排列的 operationId
+     */
+    private static List<String> operationIds(String apiDocs) {
+        List<String> operationIds = new ArrayList<>();
+        Matcher matcher = Pattern.compile("\"operationId\":\"([^\"]+)\"").matcher(apiDocs);
+        while (matcher.find()) {
+            operationIds.add(matcher.group(1));
+        }
+        return operationIds;
+    }
+
+    /**
+     * 按指定线程数扫描所有分组，返回各分组与请求无关的api-docs
+     */
+    static Map<String, String> scan(int scanThreads) {
+        Map<String, Object> properties = groups();
+        properties.put("swagger.scan-threads", String.valueOf(scanThreads));
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties)) {
+            SwaggerApiDocsCache apiDocsCache = application.getBean(SwaggerApiDocsCache.class);
+            Map<String, String> apiDocs = new TreeMap<>();
+            for (Documentation documentation : application.getBean(DocumentationCache.class).all().values()) {
+                String groupName = documentation.getGroupName();
+                apiDocs.put(groupName, StandardCharsets.UTF_8.decode(
+                        apiDocsCache.export(groupName, "/").getContent()).toString());
+            }
+            return apiDocs;
+        }
+    }
+
+    static Map<String, Object> groups() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("swagger.docket.users.base-path[0]", "/users/**");
+        properties.put("swagger.docket.orders.base-path[0]", "/orders/**");
+        properties.put("swagger.docket.all.base-path[0]", "/**");
+        properties.put("swagger.docket.extra.base-path[0]", "/**");
+        return properties;
+    }
+
+    /**
+     * 前 FAILURES 次扫描失败
+     */
+    @Configuration
+    static class FailingConfiguration {
+
+        @Bean
+        public static BeanPostProcessor failingApiDocumentationScanner() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    return bean;
+                }
+
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof ApiDocumentationScanner)) {
+                        return bean;
+                    }
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.setProxyTargetClass(true);
+                    proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                        if ("scan".equals(invocation.getMethod().getName()) && FAILURES.getAndDecrement() > 0) {
+                            DocumentationContext context = (DocumentationContext) invocation.getArguments()[0];
+                            throw new IllegalStateException("Scan of " + context.getGroupName() + " failed");
+                        }
+                        return invocation.proceed();
+                    });
+                    return proxyFactory.getProxy();
+                }
+            };
+        }
+    }
+}
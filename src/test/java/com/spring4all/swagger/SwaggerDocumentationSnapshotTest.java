@@ -0,0 +1,119 @@
+package com.spring4all.swagger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.FileSystemUtils;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerDocumentationSnapshotTest {
+
+    private Path root;
+
+    @Before
+    public void createRoot() throws IOException {
+        root = Files.createTempDirectory("swagger-snapshot-test");
+    }
+
+    @After
+    public void deleteRoot() {
+        FileSystemUtils.deleteRecursively(root.toFile());
+    }
+
+    @Test
+    public void savesEveryGroupWithEncodedFileNames() throws IOException {
+        Path snapshot = start(new HashMap<>());
+
+        assertThat(snapshot.resolve(SwaggerDocumentationSnapshot.MARKER_FILE)).exists();
+        assertThat(snapshot.resolve("default.json")).exists();
+        assertThat(SwaggerSpecExporter.fileName("users/v1:内部")).isEqualTo("users%2Fv1%3A%E5%86%85%E9%83%A8");
+        assertThat(SwaggerSpecExporter.fileName("a-b_c.d")).isEqualTo("a-b_c.d");
+    }
+
+    @Test
+    public void deletesOnlyStaleSnapshotsOfTheSameApplication() throws IOException {
+        Path stale = start(new HashMap<>());
+        Path unmarked = Files.createDirectories(root.resolve("unmarked"));
+        Path otherApplication = Files.createDirectories(root.resolve("other-application"));
+        Files.write(otherApplication.resolve(SwaggerDocumentationSnapshot.MARKER_FILE),
+                "other".getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("springfox.documentation.swagger.v2.host", "docs.example.com");
+        Path current = start(properties);
+
+        assertThat(current).isNotEqualTo(stale);
+        assertThat(stale).doesNotExist();
+        assertThat(unmarked).exists();
+        assertThat(otherApplication).exists();
+    }
+
+    @Test
+    public void restoredGroupsRenderHostPerRequestUntilScanned() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("swagger.snapshot.validate", "false");
+        start(properties);
+
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties)) {
+            SwaggerDocumentationScanner scanner = application.getBean(SwaggerDocumentationScanner.class);
+            assertThat(scanner.getScannedGroups()).isEmpty();
+            assertThat(application.getBean(SwaggerApiDocsCache.class).hasSnapshot(Docket.DEFAULT_GROUP_NAME)).isTrue();
+
+            MockHttpServletResponse restored = application.perform("swaggerDocumentationFilter",
+                    apiDocs("a.example.com"));
+            assertThat(restored.getContentAsString()).contains("\"host\":\"a.example.com\"", "/users/{id}");
+            assertThat(application.perform("swaggerDocumentationFilter", apiDocs("b.example.com"))
+                    .getContentAsString()).contains("\"host\":\"b.example.com\"");
+            assertThat(scanner.getScannedGroups()).isEmpty();
+
+            scanner.ensureScanned(Docket.DEFAULT_GROUP_NAME);
+            MockHttpServletResponse scanned = application.perform("swaggerDocumentationFilter",
+                    apiDocs("a.example.com"));
+            assertThat(scanned.getHeader("ETag")).isEqualTo(restored.getHeader("ETag"));
+            assertThat(application.getBean(SwaggerApiDocsCache.class).hasSnapshot(Docket.DEFAULT_GROUP_NAME))
+                    .isFalse();
+        }
+    }
+
+    private static MockHttpServletRequest apiDocs(String host) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v2/api-docs");
+        request.addHeader("X-Forwarded-Host", host);
+        return request;
+    }
+
+    /**
+     * 开启快照启动并关闭应用，返回保存的快照目录
+     */
+    private Path start(Map<String, Object> properties) throws IOException {
+        List<Path> before = snapshots();
+        properties.put("swagger.snapshot.enabled", "true");
+        properties.put("swagger.snapshot.directory", root.toString());
+        new SwaggerTestApplication(properties).close();
+        List<Path> created = snapshots();
+        created.removeAll(before);
+        assertThat(created).hasSize(1);
+        return created.get(0);
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> children = Files.list(root)) {
+            return children.filter(child -> Files.exists(child.resolve(SwaggerDocumentationSnapshot.MARKER_FILE))
+                    && !child.getFileName().toString().equals("other-application"))
+                    .collect(Collectors.toList());
+        }
+    }
+}
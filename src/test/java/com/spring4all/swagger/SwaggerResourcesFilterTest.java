@@ -0,0 +1,54 @@
+package com.spring4all.swagger;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerResourcesFilterTest {
+
+    @Test
+    public void resourcesAreBuiltAtStartupAndServedWithEtag() throws Exception {
+        try (SwaggerTestApplication application = new SwaggerTestApplication(
+                SwaggerDocumentationScannerTest.groups())) {
+            MockHttpServletResponse response = application.perform("swaggerResourcesFilter",
+                    new MockHttpServletRequest("GET", SwaggerResourcesFilter.RESOURCES_PATH));
+            String etag = response.getHeader(HttpHeaders.ETAG);
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+            assertThat(response.getContentAsString()).contains("\"users\"", "\"orders\"", "\"all\"", "\"extra\"");
+
+            MockHttpServletRequest revalidate = new MockHttpServletRequest("GET",
+                    SwaggerResourcesFilter.RESOURCES_PATH);
+            revalidate.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+            response = application.perform("swaggerResourcesFilter", revalidate);
+            assertThat(response.getStatus()).isEqualTo(304);
+            assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        }
+    }
+
+    @Test
+    public void maxAgeIsOnlyUsedForResourcesThatCannotChange() throws Exception {
+        Map<String, Object> properties = SwaggerDocumentationScannerTest.groups();
+        properties.put("swagger.ui-config.resources-max-age", "600");
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties)) {
+            assertThat(cacheControl(application, SwaggerResourcesFilter.RESOURCES_PATH)).isEqualTo("max-age=600");
+        }
+
+        properties.put("swagger.ui-config.tags-on-demand", "true");
+        try (SwaggerTestApplication application = new SwaggerTestApplication(properties)) {
+            assertThat(cacheControl(application, SwaggerResourcesFilter.RESOURCES_PATH)).isEqualTo("no-cache");
+            assertThat(cacheControl(application, SwaggerResourcesFilter.UI_CONFIGURATION_PATH))
+                    .isEqualTo("max-age=600");
+        }
+    }
+
+    private static String cacheControl(SwaggerTestApplication application, String path) throws Exception {
+        return application.perform("swaggerResourcesFilter", new MockHttpServletRequest("GET", path))
+                .getHeader(HttpHeaders.CACHE_CONTROL);
+    }
+}
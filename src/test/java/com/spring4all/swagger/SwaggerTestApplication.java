@@ -0,0 +1,148 @@
+package com.spring4all.swagger;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import javax.servlet.Filter;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 测试用的应用上下文：两个控制器中存在同名方法，用于检查 operationId 的生成
+ */
+public class SwaggerTestApplication implements Closeable {
+
+    private final AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+
+    public SwaggerTestApplication(Map<String, Object> properties, Class<?>... configurations) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("swagger.snapshot.enabled", "false");
+        defaults.putAll(properties);
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", defaults));
+        context.setServletContext(new MockServletContext());
+        // 额外的配置先于starter注册，与自动配置中的 @ConditionalOnMissingBean 的处理顺序一致
+        if (configurations.length > 0) {
+            context.register(configurations);
+        }
+        context.register(TestConfiguration.class, UserController.class, OrderController.class);
+        context.refresh();
+    }
+
+    public SwaggerTestApplication() {
+        this(Collections.emptyMap());
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public AnnotationConfigWebApplicationContext getContext() {
+        return context;
+    }
+
+    /**
+     * 经过指定的过滤器处理请求，未被过滤器处理的请求返回404
+     *
+     * @param filterName 过滤器注册的bean名称
+     * @param request    请求
+     * @return 响应
+     */
+    public MockHttpServletResponse perform(String filterName, MockHttpServletRequest request) throws Exception {
+        Filter filter = context.getBean(filterName, FilterRegistrationBean.class).getFilter();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                ((MockHttpServletResponse) response).setStatus(404);
+            }
+        });
+        return response;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @EnableSwagger2Doc
+    @EnableConfigurationProperties
+    static class TestConfiguration {
+    }
+
+    @RestController
+    @RequestMapping("/users")
+    static class UserController {
+
+        @GetMapping
+        public List<User> list() {
+            return Collections.emptyList();
+        }
+
+        @GetMapping("/{id}")
+        public User get(@PathVariable("id") Long id) {
+            return new User();
+        }
+    }
+
+    @RestController
+    @RequestMapping("/orders")
+    static class OrderController {
+
+        @GetMapping
+        public List<Order> list() {
+            return Collections.emptyList();
+        }
+
+        @GetMapping("/{id}")
+        public Order get(@PathVariable("id") Long id) {
+            return new Order();
+        }
+    }
+
+    public static class User {
+
+        private Long id;
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static class Order {
+
+        private Long id;
+        private User buyer;
+
+        public Long getId() {
+            return id;
+        }
+
+        public User getBuyer() {
+            return buyer;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.spring4all.swagger;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwaggerThrottlingFilterTest {
+
+    private static final String API_DOCS_PATH = "/v2/api-docs";
+
+    private final SwaggerThrottlingFilter filter = new SwaggerThrottlingFilter(throttle(1, 1), API_DOCS_PATH);
+
+    @Test
+    public void queuedRequestIsDispatchedWhenPermitIsReleased() throws Exception {
+        MockHttpServletRequest queued = request(API_DOCS_PATH);
+        MockHttpServletResponse queuedResponse = new MockHttpServletResponse();
+
+        filter.doFilter(request(API_DOCS_PATH), new MockHttpServletResponse(), (request, response) -> {
+            try {
+                filter.doFilter(queued, queuedResponse, new MockFilterChain());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            assertThat(queued.isAsyncStarted()).isTrue();
+            assertThat(asyncContext(queued).getDispatchedPath()).isNull();
+        });
+
+        assertThat(asyncContext(queued).getDispatchedPath()).isEqualTo(API_DOCS_PATH);
+
+        List<Object> handled = new ArrayList<>();
+        queued.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(queued, queuedResponse, (request, response) -> handled.add(request));
+        assertThat(handled).containsExactly(queued);
+        assertThat(queuedResponse.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void rejectsWhenQueueIsFull() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        filter.doFilter(request(API_DOCS_PATH), new MockHttpServletResponse(), (request, response) -> {
+            try {
+                filter.doFilter(request(API_DOCS_PATH), new MockHttpServletResponse(), new MockFilterChain());
+                filter.doFilter(request(API_DOCS_PATH), rejected, new MockFilterChain());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("5");
+    }
+
+    @Test
+    public void timedOutRequestLeavesQueue() throws Exception {
+        MockHttpServletResponse queuedResponse = new MockHttpServletResponse();
+        MockHttpServletRequest queued = request(API_DOCS_PATH, queuedResponse);
+        List<MockAsyncContext> timedOut = new ArrayList<>();
+
+        filter.doFilter(request(API_DOCS_PATH), new MockHttpServletResponse(), (request, response) -> {
+            try {
+                filter.doFilter(queued, queuedResponse, new MockFilterChain());
+                timedOut.add(asyncContext(queued));
+                for (AsyncListener listener : timedOut.get(0).getListeners()) {
+                    listener.onTimeout(new AsyncEvent(timedOut.get(0)));
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(queuedResponse.getStatus()).isEqualTo(429);
+        assertThat(timedOut.get(0).getDispatchedPath()).isNull();
+    }
+
+    @Test
+    public void timeoutAfterDequeueReleasesThePermit() throws Exception {
+        MockHttpServletResponse queuedResponse = new MockHttpServletResponse();
+        MockHttpServletRequest queued = request(API_DOCS_PATH, queuedResponse);
+
+        filter.doFilter(request(API_DOCS_PATH), new MockHttpServletResponse(), (request, response) -> {
+            try {
+                filter.doFilter(queued, queuedResponse, new MockFilterChain());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // 出队并请求重新分派后、重新分派开始前超时
+        MockAsyncContext asyncContext = asyncContext(queued);
+        assertThat(asyncContext.getDispatchedPath()).isEqualTo(API_DOCS_PATH);
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        List<Object> handled = new ArrayList<>();
+        MockHttpServletRequest next = request(API_DOCS_PATH);
+        filter.doFilter(next, new MockHttpServletResponse(), (request, response) -> handled.add(request));
+        assertThat(handled).containsExactly(next);
+        assertThat(next.isAsyncStarted()).isFalse();
+
+        // 迟到的重新分派不会再次归还许可
+        queued.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(queued, queuedResponse, (request, response) -> {
+            try {
+                MockHttpServletRequest concurrent = request(API_DOCS_PATH);
+                filter.doFilter(concurrent, new MockHttpServletResponse(), new MockFilterChain());
+                assertThat(concurrent.isAsyncStarted()).isTrue();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Test
+    public void businessRequestsAreNotThrottled() throws Exception {
+        List<Object> handled = new ArrayList<>();
+        FilterChain business = (request, response) -> handled.add(request);
+
+        filter.doFilter(request("/swagger-ui.html"), new MockHttpServletResponse(), (request, response) -> {
+            try {
+                filter.doFilter(request("/users"), new MockHttpServletResponse(), business);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(handled).hasSize(1);
+    }
+
+    @Test
+    public void rejectsWithoutQueue() throws Exception {
+        SwaggerThrottlingFilter unqueued = new SwaggerThrottlingFilter(throttle(1, 0), API_DOCS_PATH);
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        unqueued.doFilter(request(SwaggerResourcesFilter.RESOURCES_PATH), new MockHttpServletResponse(),
+                (request, response) -> {
+                    try {
+                        unqueued.doFilter(request(API_DOCS_PATH), rejected, new MockFilterChain());
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+    }
+
+    private static SwaggerProperties.Throttle throttle(int maxConcurrent, int queueSize) {
+        SwaggerProperties.Throttle throttle = new SwaggerProperties.Throttle();
+        throttle.setEnabled(true);
+        throttle.setMaxConcurrent(maxConcurrent);
+        throttle.setQueueSize(queueSize);
+        return throttle;
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    /**
+     * 与容器一致，startAsync() 得到的 AsyncContext 持有原始响应
+     */
+    private static MockHttpServletRequest request(String path, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path) {
+            @Override
+            public AsyncContext startAsync() {
+                return startAsync(this, response);
+            }
+        };
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static MockAsyncContext asyncContext(MockHttpServletRequest request) {
+        return (MockAsyncContext) request.getAsyncContext();
+    }
+}
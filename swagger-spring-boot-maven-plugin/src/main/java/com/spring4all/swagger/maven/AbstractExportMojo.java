@@ -0,0 +1,98 @@
+package com.spring4all.swagger.maven;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 在构建时以项目的运行时classpath启动应用，并调用starter中的导出工具
+ */
+public abstract class AbstractExportMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * 应用主类
+     */
+    @Parameter(property = "swagger.mainClass", required = true)
+    private String mainClass;
+
+    /**
+     * 启动应用时额外的配置，例如关闭数据源等导出文档时不需要的组件
+     */
+    @Parameter
+    private Map<String, String> properties;
+
+    /**
+     * 是否跳过
+     */
+    @Parameter(property = "swagger.skip", defaultValue = "false")
+    private boolean skip;
+
+    /**
+     * 导出工具的类名，需要提供 main(String[]) 方法，参数为应用主类、输出目录与应用参数
+     */
+    protected abstract String exporterClass();
+
+    /**
+     * 输出目录
+     */
+    protected abstract File outputDirectory();
+
+    /**
+     * 日志与错误信息中的导出内容描述
+     */
+    protected abstract String description();
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping " + description() + " generation");
+            return;
+        }
+        getLog().info("Generating " + description() + " to " + outputDirectory());
+        List<String> args = new ArrayList<>();
+        args.add(mainClass);
+        args.add(outputDirectory().getAbsolutePath());
+        if (properties != null) {
+            for (Map.Entry<String, String> entry : properties.entrySet()) {
+                args.add("--" + entry.getKey() + "=" + entry.getValue());
+            }
+        }
+
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(runtimeClasspath(),
+                ClassLoader.getSystemClassLoader().getParent())) {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            Method main = classLoader.loadClass(exporterClass()).getMethod("main", String[].class);
+            main.invoke(null, (Object) args.toArray(new String[0]));
+        } catch (InvocationTargetException e) {
+            throw new MojoExecutionException("Unable to generate " + description(), e.getTargetException());
+        } catch (Exception e) {
+            throw new MojoExecutionException("Unable to generate " + description(), e);
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    private URL[] runtimeClasspath() throws DependencyResolutionRequiredException, MalformedURLException {
+        List<URL> urls = new ArrayList<>();
+        for (String element : project.getRuntimeClasspathElements()) {
+            urls.add(new File(element).toURI().toURL());
+        }
+        return urls.toArray(new URL[0]);
+    }
+}
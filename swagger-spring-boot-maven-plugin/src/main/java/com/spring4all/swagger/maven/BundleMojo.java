@@ -0,0 +1,41 @@
+package com.spring4all.swagger.maven;
+
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import java.io.File;
+
+/**
+ * 在构建时启动应用，按 swagger.docket 的分组配置导出一个可以直接部署到CDN的静态文档目录：
+ * swagger-ui静态资源、每个分组的api-docs（同时包含gzip压缩版本）以及预先生成的 swagger-resources，
+ * 运行时可以配置 swagger.enabled=false 完全关闭文档功能
+ */
+@Mojo(name = "bundle", defaultPhase = LifecyclePhase.PACKAGE,
+        requiresDependencyResolution = ResolutionScope.RUNTIME, threadSafe = true)
+public class BundleMojo extends AbstractExportMojo {
+
+    static final String EXPORTER_CLASS = "com.spring4all.swagger.SwaggerBundleExporter";
+
+    /**
+     * 静态文档目录，默认输出到target/swagger-bundle
+     */
+    @Parameter(property = "swagger.bundleDirectory", defaultValue = "${project.build.directory}/swagger-bundle")
+    private File outputDirectory;
+
+    @Override
+    protected String exporterClass() {
+        return EXPORTER_CLASS;
+    }
+
+    @Override
+    protected File outputDirectory() {
+        return outputDirectory;
+    }
+
+    @Override
+    protected String description() {
+        return "swagger documentation bundle";
+    }
+}
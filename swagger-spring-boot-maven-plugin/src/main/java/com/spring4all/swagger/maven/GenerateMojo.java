@@ -0,0 +1,41 @@
+package com.spring4all.swagger.maven;
+
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import java.io.File;
+
+/**
+ * 在构建时启动应用并导出所有分组的api-docs，导出的文档会被打包到jar中，
+ * 运行时配置 swagger.scan-mode=prebuilt 即可直接从classpath加载而无需扫描
+ */
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.PREPARE_PACKAGE,
+        requiresDependencyResolution = ResolutionScope.RUNTIME, threadSafe = true)
+public class GenerateMojo extends AbstractExportMojo {
+
+    static final String EXPORTER_CLASS = "com.spring4all.swagger.SwaggerSpecExporter";
+
+    /**
+     * 文档输出目录，默认输出到classes目录下，与 swagger.prebuilt-location 的默认值对应
+     */
+    @Parameter(property = "swagger.outputDirectory",
+            defaultValue = "${project.build.outputDirectory}/META-INF/swagger")
+    private File outputDirectory;
+
+    @Override
+    protected String exporterClass() {
+        return EXPORTER_CLASS;
+    }
+
+    @Override
+    protected File outputDirectory() {
+        return outputDirectory;
+    }
+
+    @Override
+    protected String description() {
+        return "swagger api-docs";
+    }
+}
@@ -0,0 +1,18 @@
+package com.spring4all.swagger.webflux;
+
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.*;
+
+/**
+ * 在 WebFlux 应用中提供构建时生成的api-docs与swagger-ui，见 {@link SwaggerWebFluxConfiguration}
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@Import({SwaggerWebFluxConfiguration.class})
+public @interface EnableSwagger2WebFlux {
+
+
+}
@@ -0,0 +1,99 @@
+package com.spring4all.swagger.webflux;
+
+import com.spring4all.swagger.SwaggerApiDocsStorage;
+import com.spring4all.swagger.SwaggerPrebuiltApiDocs;
+import com.spring4all.swagger.SwaggerProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import springfox.documentation.swagger.web.SecurityConfiguration;
+import springfox.documentation.swagger.web.SecurityConfigurationBuilder;
+import springfox.documentation.swagger.web.UiConfiguration;
+import springfox.documentation.swagger.web.UiConfigurationBuilder;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+/**
+ * WebFlux 下的文档配置：springfox 2.x 只能扫描 servlet 应用，WebFlux 应用使用
+ * swagger-spring-boot-maven-plugin 在构建时生成的api-docs（Docket 的创建与扫描逻辑与 servlet 应用相同），
+ * 运行时以非阻塞的方式输出api-docs、swagger-resources 与 swagger-ui 静态资源
+ */
+@Configuration
+@ConditionalOnProperty(name = "swagger.enabled", matchIfMissing = true)
+public class SwaggerWebFluxConfiguration {
+
+    static final String API_DOCS_PATH_PROPERTY = "springfox.documentation.swagger.v2.path";
+    static final String DEFAULT_API_DOCS_PATH = "/v2/api-docs";
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SwaggerProperties swaggerProperties() {
+        return new SwaggerProperties();
+    }
+
+    @Bean
+    public SwaggerApiDocsStorage swaggerApiDocsStorage(SwaggerProperties swaggerProperties) {
+        return new SwaggerApiDocsStorage(swaggerProperties.getCache().getStorage());
+    }
+
+    @Bean
+    public SwaggerPrebuiltApiDocs swaggerPrebuiltApiDocs(SwaggerProperties swaggerProperties,
+                                                         ResourceLoader resourceLoader,
+                                                         SwaggerApiDocsStorage apiDocsStorage) {
+        return new SwaggerPrebuiltApiDocs(resourceLoader, swaggerProperties.getPrebuiltLocation(), apiDocsStorage);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public UiConfiguration uiConfiguration(SwaggerProperties swaggerProperties) {
+        return UiConfigurationBuilder.builder()
+                .deepLinking(swaggerProperties.getUiConfig().getDeepLinking())
+                .defaultModelExpandDepth(swaggerProperties.getUiConfig().getDefaultModelExpandDepth())
+                .defaultModelRendering(swaggerProperties.getUiConfig().getDefaultModelRendering())
+                .defaultModelsExpandDepth(swaggerProperties.getUiConfig().getDefaultModelsExpandDepth())
+                .displayOperationId(swaggerProperties.getUiConfig().getDisplayOperationId())
+                .displayRequestDuration(swaggerProperties.getUiConfig().getDisplayRequestDuration())
+                .docExpansion(swaggerProperties.getUiConfig().getDocExpansion())
+                .maxDisplayedTags(swaggerProperties.getUiConfig().getMaxDisplayedTags())
+                .operationsSorter(swaggerProperties.getUiConfig().getOperationsSorter())
+                .showExtensions(swaggerProperties.getUiConfig().getShowExtensions())
+                .tagsSorter(swaggerProperties.getUiConfig().getTagsSorter())
+                .validatorUrl(swaggerProperties.getUiConfig().getValidatorUrl())
+                .build();
+    }
+
+    @Bean
+    public SwaggerWebFluxHandler swaggerWebFluxHandler(SwaggerProperties swaggerProperties,
+                                                       SwaggerPrebuiltApiDocs prebuiltApiDocs,
+                                                       UiConfiguration uiConfiguration,
+                                                       ObjectProvider<SecurityConfiguration> securityConfiguration,
+                                                       Environment environment) {
+        SecurityConfiguration configuration = securityConfiguration.getIfAvailable();
+        return new SwaggerWebFluxHandler(prebuiltApiDocs, uiConfiguration,
+                configuration == null ? SecurityConfigurationBuilder.builder().build() : configuration,
+                apiDocsPath(environment), swaggerProperties.getUiConfig().getResourcesMaxAge());
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> swaggerRouterFunction(SwaggerWebFluxHandler handler,
+                                                                Environment environment) {
+        return RouterFunctions.route(GET(apiDocsPath(environment)), handler::apiDocs)
+                .andRoute(GET("/swagger-resources"), handler::swaggerResources)
+                .andRoute(GET("/swagger-resources/configuration/ui"), handler::uiConfiguration)
+                .andRoute(GET("/swagger-resources/configuration/security"), handler::securityConfiguration)
+                .andRoute(GET("/swagger-ui.html"), handler::swaggerUi)
+                .and(RouterFunctions.resources("/webjars/**", new ClassPathResource("META-INF/resources/webjars/")));
+    }
+
+    static String apiDocsPath(Environment environment) {
+        return environment.getProperty(API_DOCS_PATH_PROPERTY, DEFAULT_API_DOCS_PATH);
+    }
+}
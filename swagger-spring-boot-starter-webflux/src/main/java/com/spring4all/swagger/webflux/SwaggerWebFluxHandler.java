@@ -0,0 +1,164 @@
+package com.spring4all.swagger.webflux;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring4all.swagger.SwaggerApiDocs;
+import com.spring4all.swagger.SwaggerPrebuiltApiDocs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.swagger.web.SecurityConfiguration;
+import springfox.documentation.swagger.web.SwaggerResource;
+import springfox.documentation.swagger.web.UiConfiguration;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 输出构建时生成的api-docs与swagger-ui所需的配置。
+ * api-docs按固定大小分块输出，每个分块直接引用缓存的内容，只在下游请求时生成，不会一次性写入全部内容；
+ * swagger-resources 与页面配置在创建时序列化一次，与servlet下的 SwaggerResourcesFilter 一样带上ETag与 Cache-Control 响应头，
+ * 构建时生成的分组在应用的整个生命周期内不变
+ */
+@Slf4j
+public class SwaggerWebFluxHandler {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final SwaggerPrebuiltApiDocs prebuiltApiDocs;
+    private final String cacheControl;
+    private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    private final SwaggerApiDocs swaggerResources;
+    private final SwaggerApiDocs uiConfiguration;
+    private final SwaggerApiDocs securityConfiguration;
+
+    public SwaggerWebFluxHandler(SwaggerPrebuiltApiDocs prebuiltApiDocs, UiConfiguration uiConfiguration,
+                                 SecurityConfiguration securityConfiguration, String apiDocsPath, long maxAge) {
+        this.prebuiltApiDocs = prebuiltApiDocs;
+        this.cacheControl = SwaggerApiDocs.cacheControl(maxAge);
+        ObjectMapper objectMapper = new ObjectMapper();
+        try {
+            this.swaggerResources = new SwaggerApiDocs(
+                    objectMapper.writeValueAsBytes(swaggerResources(prebuiltApiDocs.getGroupNames(), apiDocsPath)));
+            this.uiConfiguration = new SwaggerApiDocs(objectMapper.writeValueAsBytes(uiConfiguration));
+            this.securityConfiguration = new SwaggerApiDocs(objectMapper.writeValueAsBytes(securityConfiguration));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        if (prebuiltApiDocs.getGroupNames().isEmpty()) {
+            log.warn("No prebuilt api-docs found, generate them with swagger-spring-boot-maven-plugin");
+        }
+    }
+
+    public Mono<ServerResponse> apiDocs(ServerRequest request) {
+        String groupName = request.queryParam("group").orElse(Docket.DEFAULT_GROUP_NAME);
+        SwaggerApiDocs apiDocs = prebuiltApiDocs.get(groupName);
+        if (apiDocs == null) {
+            log.warn("Unable to find specification for group {}", groupName);
+            return ServerResponse.notFound().build();
+        }
+        // 与servlet下的 SwaggerDocumentationFilter 使用相同的内容协商，gzip内容有独立的ETag
+        boolean gzip = SwaggerApiDocs.acceptsGzip(
+                String.join(",", request.headers().header(HttpHeaders.ACCEPT_ENCODING)));
+        String etag = apiDocs.getEtag(gzip);
+        if (SwaggerApiDocs.etagMatches(
+                String.join(",", request.headers().header(HttpHeaders.IF_NONE_MATCH)), etag)) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ByteBuffer body = gzip ? apiDocs.getGzipContent() : apiDocs.getContent();
+        ServerResponse.BodyBuilder response = ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .contentLength(body.remaining())
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(BodyInserters.fromDataBuffers(chunks(body)));
+    }
+
+    public Mono<ServerResponse> swaggerResources(ServerRequest request) {
+        return json(request, swaggerResources);
+    }
+
+    public Mono<ServerResponse> uiConfiguration(ServerRequest request) {
+        return json(request, uiConfiguration);
+    }
+
+    public Mono<ServerResponse> securityConfiguration(ServerRequest request) {
+        return json(request, securityConfiguration);
+    }
+
+    public Mono<ServerResponse> swaggerUi(ServerRequest request) {
+        Resource resource = new ClassPathResource("META-INF/resources/swagger-ui.html");
+        return ServerResponse.ok().contentType(MediaType.TEXT_HTML).body(BodyInserters.fromResource(resource));
+    }
+
+    private Mono<ServerResponse> json(ServerRequest request, SwaggerApiDocs content) {
+        if (SwaggerApiDocs.etagMatches(
+                String.join(",", request.headers().header(HttpHeaders.IF_NONE_MATCH)), content.getEtag())) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(content.getEtag())
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .build();
+        }
+        ByteBuffer body = content.getContent();
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .contentLength(body.remaining())
+                .eTag(content.getEtag())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .body(BodyInserters.fromDataBuffers(Flux.just(bufferFactory.wrap(body))));
+    }
+
+    private static List<SwaggerResource> swaggerResources(List<String> groupNames, String apiDocsPath) {
+        List<SwaggerResource> resources = new ArrayList<>();
+        for (String groupName : groupNames) {
+            SwaggerResource swaggerResource = new SwaggerResource();
+            swaggerResource.setName(groupName);
+            swaggerResource.setUrl(Docket.DEFAULT_GROUP_NAME.equals(groupName)
+                    ? apiDocsPath : apiDocsPath + "?group=" + groupName);
+            swaggerResource.setSwaggerVersion("2.0");
+            resources.add(swaggerResource);
+        }
+        Collections.sort(resources);
+        return resources;
+    }
+
+    /**
+     * 按下游的请求逐块生成 DataBuffer，分块与缓存的内容共享同一块内存（堆内、直接内存或内存映射文件）
+     */
+    private Flux<DataBuffer> chunks(ByteBuffer body) {
+        int end = body.limit();
+        return Flux.generate(body::position, (position, sink) -> {
+            int next = Math.min(position + CHUNK_SIZE, end);
+            ByteBuffer chunk = body.duplicate();
+            chunk.position(position);
+            chunk.limit(next);
+            sink.next(bufferFactory.wrap(chunk.slice()));
+            if (next == end) {
+                sink.complete();
+            }
+            return next;
+        });
+    }
+}